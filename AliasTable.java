@@ -0,0 +1,93 @@
+package com.example.PixelmonRaid;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Weighted index sampling in O(1) per draw (Vose's alias method).
+ *  - built once from non-negative weights in O(n)
+ *  - a draw picks a column uniformly, then either the column itself or its alias with one double compare
+ *
+ * Immutable after construction; safe to share between threads (each thread brings its own generator).
+ */
+public final class AliasTable {
+    private final double[] prob;
+    private final int[] alias;
+    private final double[] normalized; // weight / total, for inspection
+
+    private AliasTable(double[] prob, int[] alias, double[] normalized) {
+        this.prob = prob;
+        this.alias = alias;
+        this.normalized = normalized;
+    }
+
+    /** Build a table; throws IllegalArgumentException when no weight is positive or a weight is negative/NaN. */
+    public static AliasTable of(double[] weights) {
+        int n = weights == null ? 0 : weights.length;
+        double total = 0.0;
+        for (int i = 0; i < n; i++) {
+            double w = weights[i];
+            if (!(w >= 0.0) || Double.isInfinite(w)) throw new IllegalArgumentException("bad weight at " + i + ": " + w);
+            total += w;
+        }
+        if (!(total > 0.0)) throw new IllegalArgumentException("no positive weight");
+
+        double[] normalized = new double[n];
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int ns = 0, nl = 0;
+        for (int i = 0; i < n; i++) {
+            normalized[i] = weights[i] / total;
+            scaled[i] = normalized[i] * n;
+            if (scaled[i] < 1.0) small[ns++] = i;
+            else large[nl++] = i;
+        }
+
+        double[] prob = new double[n];
+        int[] alias = new int[n];
+        while (ns > 0 && nl > 0) {
+            int s = small[--ns];
+            int l = large[--nl];
+            prob[s] = scaled[s];
+            alias[s] = l;
+            scaled[l] = (scaled[l] + scaled[s]) - 1.0;
+            if (scaled[l] < 1.0) small[ns++] = l;
+            else large[nl++] = l;
+        }
+        // leftovers are 1.0 up to rounding
+        while (nl > 0) {
+            int l = large[--nl];
+            prob[l] = 1.0;
+            alias[l] = l;
+        }
+        while (ns > 0) {
+            int s = small[--ns];
+            prob[s] = 1.0;
+            alias[s] = s;
+        }
+        return new AliasTable(prob, alias, normalized);
+    }
+
+    public int size() {
+        return prob.length;
+    }
+
+    /** Probability of drawing index i. */
+    public double probability(int i) {
+        return normalized[i];
+    }
+
+    public int sample(Random random) {
+        return sample(random.nextInt(prob.length), random.nextDouble());
+    }
+
+    public int sample(SplittableRandom random) {
+        return sample(random.nextInt(prob.length), random.nextDouble());
+    }
+
+    /** Draw from a uniform column in [0, size) and a uniform u in [0, 1); for callers with their own generator. */
+    public int sample(int column, double u) {
+        return u < prob[column] ? column : alias[column];
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.PixelmonRaid;
+
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.text.StringTextComponent;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.event.server.FMLServerStoppingEvent;
+import net.minecraftforge.fml.server.ServerLifecycleHooks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * Admits raid players into their boss battle one player at a time.
+ *  - request() queues a join for one player; a player already queued is not queued twice, and a player
+ *    already in a battle is skipped
+ *  - each request puts the player into a battle shard (RaidShards); an admission starts that player's shard
+ *    battle with the shard's other waiting members, whose own admissions then find them battling.
+ *    Battles already running are never rebuilt
+ *  - at most admissionsPerTick joins are attempted per server tick, so a large roster is admitted over
+ *    several ticks
+ *  - a failed start is retried with exponential backoff (RETRY_BASE_TICKS, doubling, capped) and given up
+ *    after MAX_ATTEMPTS, telling the player how to retry
+ *
+ * Server thread only.
+ */
+@Mod.EventBusSubscriber(modid = PixelmonRaidMod.MODID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class BattleAdmissionService {
+    private BattleAdmissionService() {}
+
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long RETRY_BASE_TICKS = 20L;
+    private static final long RETRY_MAX_TICKS = 200L;
+
+    private static final class Admission implements Comparable<Admission> {
+        final UUID player;
+        final RaidSession session;
+        int attempts;
+        long dueTick;
+        final long seq;
+
+        Admission(UUID player, RaidSession session, long dueTick, long seq) {
+            this.player = player;
+            this.session = session;
+            this.dueTick = dueTick;
+            this.seq = seq;
+        }
+
+        @Override
+        public int compareTo(Admission o) {
+            int c = Long.compare(dueTick, o.dueTick);
+            return c != 0 ? c : Long.compare(seq, o.seq);
+        }
+    }
+
+    private static final Map<UUID, Admission> PENDING = new HashMap<>();
+    private static final PriorityQueue<Admission> DUE = new PriorityQueue<>();
+    private static long nextSeq;
+    private static long tickCounter;
+
+    /**
+     * Queue a battle join for the player. Returns false when nothing was queued: the player is already
+     * queued, already battling, or not part of a running raid in this session.
+     */
+    public static boolean request(RaidSession session, UUID playerId) {
+        if (session == null || playerId == null) return false;
+        if (PENDING.containsKey(playerId)) return false;
+        if (!session.getPlayers().contains(playerId)) return false;
+        MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+        ServerPlayerEntity sp = server != null ? server.getPlayerList().getPlayer(playerId) : null;
+        if (sp != null && isBattling(sp)) return false;
+
+        session.getShards().assign(playerId);
+        Admission a = new Admission(playerId, session, tickCounter, nextSeq++);
+        PENDING.put(playerId, a);
+        DUE.add(a);
+        return true;
+    }
+
+    /** True while the player has a join queued or waiting for a retry. */
+    public static boolean isPending(UUID playerId) {
+        return PENDING.containsKey(playerId);
+    }
+
+    /** Admissions waiting (for status output). */
+    public static int pending() {
+        return PENDING.size();
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event == null || event.phase != TickEvent.Phase.END) return;
+        tickCounter++;
+        if (DUE.isEmpty()) return;
+
+        MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+        if (server == null) return;
+        int budget = PixelmonRaidConfig.current().getAdmissionsPerTick();
+        Admission a;
+        while (budget > 0 && (a = DUE.peek()) != null && a.dueTick <= tickCounter) {
+            DUE.poll();
+            budget--;
+            try {
+                if (!admit(server, a)) retryOrGiveUp(server, a);
+                else PENDING.remove(a.player, a);
+            } catch (Throwable t) {
+                t.printStackTrace();
+                retryOrGiveUp(server, a);
+            }
+        }
+    }
+
+    /** One attempt; true when the admission is settled (battle started, or no longer wanted). */
+    private static boolean admit(MinecraftServer server, Admission a) {
+        RaidSession session = a.session;
+        RaidSession.State state = session.getState();
+        if (state != RaidSession.State.WAITING && state != RaidSession.State.IN_BATTLE) return true; // raid over
+        if (!session.getPlayers().contains(a.player)) return true;                                   // left the raid
+        ServerPlayerEntity sp = server.getPlayerList().getPlayer(a.player);
+        if (sp == null) return true;                                                                 // logged off
+        if (isBattling(sp)) return true;                                                             // already in
+
+        RaidShards shards = session.getShards();
+        return shards.start(server, shards.assign(a.player));
+    }
+
+    private static void retryOrGiveUp(MinecraftServer server, Admission a) {
+        a.attempts++;
+        if (a.attempts >= MAX_ATTEMPTS) {
+            PENDING.remove(a.player, a);
+            try {
+                ServerPlayerEntity sp = server.getPlayerList().getPlayer(a.player);
+                if (sp != null) sp.sendMessage(new StringTextComponent("Could not start your raid battle. Attack the boss to try again."), sp.getUUID());
+            } catch (Throwable ignored) {}
+            System.out.println("[PixelmonRaid] Battle admission for " + a.player + " given up after " + a.attempts + " attempts.");
+            return;
+        }
+        a.dueTick = tickCounter + Math.min(RETRY_MAX_TICKS, RETRY_BASE_TICKS << (a.attempts - 1));
+        DUE.add(a);
+    }
+
+    private static boolean isBattling(ServerPlayerEntity sp) {
+        try {
+            return PixelmonBattleBridge.getBattle(sp) != null;
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(FMLServerStoppingEvent evt) {
+        PENDING.clear();
+        DUE.clear();
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.PixelmonRaid;
+
+import it.unimi.dsi.fastutil.objects.Object2FloatOpenHashMap;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.text.StringTextComponent;
+import net.minecraft.world.BossInfo;
+import net.minecraft.world.server.ServerBossInfo;
+import net.minecraft.world.server.ServerWorld;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Coalesces boss-bar updates for one raid session.
+ *  - damage handlers only record the latest pool total (no packets and no percent maths inside the damage
+ *    event); the percent is worked out once per flush
+ *  - at END of the world tick the latest value is flushed at most once per bossBarFlushIntervalTicks
+ *  - a player is sent a BossBarPacket (percent + title) only when the value they last received is stale by more
+ *    than sendThreshold
+ *  - a phase change (RaidPhaseEngine) recolours the title and resends it on the next flush
+ *
+ * So the packet count per flush is bounded by the session's player count, however many hits land in a tick.
+ * packetsSent()/bytesSent() count what every session has sent since the server started. BossBarFrame and
+ * BossBarInterpolator are not sent from here: the HUD (RaidHUDOverlay) draws from BossBarPacket, and frames
+ * only go on the wire once it reads the interpolator.
+ *
+ * With vanillaBossBar on, none of that is sent: the session owns a ServerBossInfo instead, its watchers follow
+ * the roster (join/leave, login/logout), and each flush is one setPercent on it, which vanilla forwards to every
+ * watcher. Works for players without the mod. Server thread only.
+ */
+@Mod.EventBusSubscriber(modid = PixelmonRaidMod.MODID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class BossBarBroadcaster {
+    private static final String TITLE = "Raid Boss";
+    private static final String[] PHASE_COLOURS = {"§a", "§e", "§6", "§c"};
+    // vanilla has no orange; phase 2 goes pink
+    private static final BossInfo.Color[] VANILLA_COLOURS = {BossInfo.Color.GREEN, BossInfo.Color.YELLOW, BossInfo.Color.PINK, BossInfo.Color.RED};
+
+    private static long packetsSent;
+    private static long bytesSent;
+
+    private long dealt = -1L;
+    private long capacity = 1L;
+    private int phase;
+    private boolean dirty;
+    private long lastFlushTick = Long.MIN_VALUE;
+    // last percent and title actually sent to each player; -1 = never sent
+    private final Object2FloatOpenHashMap<UUID> lastSent = new Object2FloatOpenHashMap<>();
+    private final Map<UUID, String> titleSent = new HashMap<>();
+    // vanillaBossBar mode only; null otherwise
+    private ServerBossInfo vanilla;
+
+    BossBarBroadcaster() {
+        lastSent.defaultReturnValue(-1f);
+    }
+
+    /** Record the pool total after a hit. Cheap; the packet goes out on the next flush. */
+    public void update(long dealt, long capacity) {
+        if (dealt == this.dealt && capacity == this.capacity) return;
+        this.dealt = dealt;
+        this.capacity = Math.max(1L, capacity);
+        dirty = true;
+    }
+
+    /** Latest percent left (0..1), or -1 when nothing was recorded yet. */
+    public float getLatest() {
+        return dealt < 0L ? -1f : Math.max(0f, 1f - (float) ((double) dealt / capacity));
+    }
+
+    /** Recolour the bar for a boss phase; every player gets the new title on the next flush. */
+    public void setPhase(int phase) {
+        if (phase == this.phase) return;
+        this.phase = phase;
+        dirty = true;
+    }
+
+    private String title() {
+        String colour = PHASE_COLOURS[Math.max(0, Math.min(phase, PHASE_COLOURS.length - 1))];
+        return phase > 0 ? colour + TITLE + " - Phase " + (phase + 1) : colour + TITLE;
+    }
+
+    /** Forget everything; called when the session resets. */
+    public void reset() {
+        dealt = -1L;
+        capacity = 1L;
+        phase = 0;
+        dirty = false;
+        lastFlushTick = Long.MIN_VALUE;
+        lastSent.clear();
+        titleSent.clear();
+        if (vanilla != null) {
+            vanilla.removeAllPlayers();
+            vanilla.setPercent(1f);
+        }
+    }
+
+    /** A player joined the session (or came back online): they start watching the vanilla bar. */
+    void join(RaidSession session, UUID playerId) {
+        if (vanilla == null) return;
+        try {
+            ServerPlayerEntity p = session.getWorld().getServer().getPlayerList().getPlayer(playerId);
+            if (p != null) vanilla.addPlayer(p);
+        } catch (Throwable ignored) {}
+    }
+
+    /** A player left the session (or went offline): they stop watching the vanilla bar. */
+    void leave(UUID playerId) {
+        if (vanilla == null) return;
+        // match by id: after a relog the tracked entity is not the one the player list returns
+        for (ServerPlayerEntity p : new ArrayList<>(vanilla.getPlayers())) {
+            if (p.getUUID().equals(playerId)) vanilla.removePlayer(p);
+        }
+    }
+
+    /** Switch between BossBarPackets and the vanilla bar when the config changes. */
+    private void applyMode(RaidSession session, boolean vanillaMode) {
+        if (vanillaMode == (vanilla != null)) return;
+        if (vanillaMode) {
+            vanilla = new ServerBossInfo(new StringTextComponent(title()), VANILLA_COLOURS[0], BossInfo.Overlay.NOTCHED_10);
+            for (UUID id : session.getPlayers()) join(session, id);
+            dirty = dealt >= 0L;
+        } else {
+            vanilla.removeAllPlayers();
+            vanilla = null;
+            lastSent.clear();
+            titleSent.clear();
+            dirty = dealt >= 0L;
+        }
+    }
+
+    /** One progress write (vanilla sends it to every watcher); name and colour only when the phase changed. */
+    private void flushVanilla(float pct, double threshold) {
+        String title = title();
+        if (!title.equals(vanilla.getName().getString())) {
+            vanilla.setName(new StringTextComponent(title));
+            vanilla.setColor(VANILLA_COLOURS[Math.max(0, Math.min(phase, VANILLA_COLOURS.length - 1))]);
+        }
+        float shown = vanilla.getPercent();
+        if (Math.abs(shown - pct) > threshold || (pct <= 0f && shown > 0f)) vanilla.setPercent(pct);
+    }
+
+    /** BossBarPackets sent by every session since the server started. */
+    public static long packetsSent() { return packetsSent; }
+
+    /** Estimated payload bytes of those packets (percent + title; channel framing not included). */
+    public static long bytesSent() { return bytesSent; }
+
+    /**
+     * Send the latest percent to every session player whose last received value or title is stale.
+     * force skips the flush interval (used when the session is about to reset).
+     */
+    void flush(RaidSession session, long tick, boolean force) {
+        PixelmonRaidConfig.Snapshot cfg = PixelmonRaidConfig.current();
+        applyMode(session, cfg.isVanillaBossBar());
+        if (!dirty || dealt < 0L) return;
+        if (!force && lastFlushTick != Long.MIN_VALUE && tick - lastFlushTick < cfg.getBossBarFlushIntervalTicks()) return;
+
+        MinecraftServer server = session.getWorld().getServer();
+        if (server == null) return;
+        double threshold = cfg.getSendThreshold();
+        float pct = getLatest();
+        try { RaidState.setBossPercent(pct); } catch (Throwable ignored) {}
+        if (vanilla != null) {
+            flushVanilla(pct, threshold);
+            dirty = false;
+            lastFlushTick = tick;
+            return;
+        }
+
+        String title = title();
+        for (UUID id : session.getPlayers()) {
+            float last = lastSent.getFloat(id);
+            boolean titleChanged = !title.equals(titleSent.get(id));
+            // always deliver the final 0% so the bar visibly empties
+            if (last >= 0f && !titleChanged && Math.abs(last - pct) <= threshold && !(pct <= 0f && last > 0f)) continue;
+            try {
+                ServerPlayerEntity p = server.getPlayerList().getPlayer(id);
+                if (p == null) continue;
+                PacketHandler.sendBossBarToPlayer(p, pct, title);
+                lastSent.put(id, pct);
+                titleSent.put(id, title);
+                packetsSent++;
+                bytesSent += 4 + 1 + title.getBytes(StandardCharsets.UTF_8).length;
+            } catch (Throwable ignored) {}
+        }
+        dirty = false;
+        lastFlushTick = tick;
+    }
+
+    @SubscribeEvent
+    public static void onLogin(PlayerEvent.PlayerLoggedInEvent event) {
+        RaidSession session = RaidSessionRegistry.forPlayer(event.getPlayer().getUUID());
+        if (session != null) session.getBossBar().join(session, event.getPlayer().getUUID());
+    }
+
+    @SubscribeEvent
+    public static void onLogout(PlayerEvent.PlayerLoggedOutEvent event) {
+        RaidSession session = RaidSessionRegistry.forPlayer(event.getPlayer().getUUID());
+        if (session != null) session.getBossBar().leave(event.getPlayer().getUUID());
+    }
+
+    @SubscribeEvent
+    public static void onWorldTick(TickEvent.WorldTickEvent event) {
+        if (event == null || event.phase != TickEvent.Phase.END) return;
+        if (!(event.world instanceof ServerWorld)) return;
+        List<RaidSession> sessions = RaidSessionRegistry.sessions(event.world);
+        for (int i = 0; i < sessions.size(); i++) {
+            RaidSession session = sessions.get(i);
+            try {
+                session.getBossBar().flush(session, event.world.getGameTime(), false);
+            } catch (Throwable t) {
+                t.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.PixelmonRaid;
+
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.util.Util;
+import net.minecraftforge.fml.network.NetworkEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+
+/**
+ * One boss-bar update on the wire (server -> client): where the bar is, when, and how fast it is draining.
+ *  - target: percent left (0..1) at serverTick
+ *  - drainPerTick: recent drain rate; both sides extrapolate target along it for at most MAX_EXTRAPOLATE_TICKS,
+ *    so the bar keeps moving smoothly between packets and stops if they stop
+ *  - title: only sent when it changed for that player (null = keep the current one)
+ *
+ * A sender uses predict() to skip players whose bar would already be close enough to the real value; the client
+ * hands frames to BossBarInterpolator. Not registered on the channel yet: the HUD still draws from BossBarPacket,
+ * so the frame goes on the wire (with a protocol bump) together with the HUD switching to the interpolator.
+ */
+public final class BossBarFrame {
+    /** Longest stretch either side extrapolates along the drain rate (two sends at 4 Hz). */
+    public static final int MAX_EXTRAPOLATE_TICKS = 10;
+
+    private final float target;
+    private final long serverTick;
+    private final float drainPerTick;
+    private final String title;
+
+    public BossBarFrame(float target, long serverTick, float drainPerTick, String title) {
+        this.target = Math.max(0f, Math.min(1f, target));
+        this.serverTick = serverTick;
+        this.drainPerTick = Math.max(0f, drainPerTick);
+        this.title = title;
+    }
+
+    public float getTarget() { return target; }
+    public long getServerTick() { return serverTick; }
+    public float getDrainPerTick() { return drainPerTick; }
+    /** Title, or null when the receiver keeps the one it has. */
+    public String getTitle() { return title; }
+
+    /** Same frame without the title, for players who already have it. */
+    public BossBarFrame withoutTitle() {
+        return title == null ? this : new BossBarFrame(target, serverTick, drainPerTick, null);
+    }
+
+    /** The value this frame predicts the given number of ticks after it was stamped. */
+    public float predictAfter(float ticks) {
+        float t = Math.max(0f, Math.min(ticks, MAX_EXTRAPOLATE_TICKS));
+        return Math.max(0f, target - drainPerTick * t);
+    }
+
+    /** The value a client holding this frame shows at the given server tick. */
+    public float predict(long tick) {
+        return predictAfter(tick - serverTick);
+    }
+
+    /** Encoded size in bytes, for bandwidth accounting. */
+    public int encodedSize() {
+        int size = 4 + varLongSize(serverTick) + 4 + 1;
+        if (title != null) {
+            int len = title.getBytes(StandardCharsets.UTF_8).length;
+            size += varLongSize(len) + len;
+        }
+        return size;
+    }
+
+    private static int varLongSize(long v) {
+        int n = 1;
+        while ((v & -128L) != 0L) {
+            v >>>= 7;
+            n++;
+        }
+        return n;
+    }
+
+    public static void encode(BossBarFrame f, PacketBuffer buf) {
+        buf.writeFloat(f.target);
+        buf.writeVarLong(f.serverTick);
+        buf.writeFloat(f.drainPerTick);
+        buf.writeBoolean(f.title != null);
+        if (f.title != null) buf.writeUtf(f.title);
+    }
+
+    public static BossBarFrame decode(PacketBuffer buf) {
+        float target = buf.readFloat();
+        long tick = buf.readVarLong();
+        float drain = buf.readFloat();
+        String title = buf.readBoolean() ? buf.readUtf(32767) : null;
+        return new BossBarFrame(target, tick, drain, title);
+    }
+
+    // no client classes here: the frame is only stored, the HUD pulls it from BossBarInterpolator
+    public static void handle(BossBarFrame f, Supplier<NetworkEvent.Context> ctx) {
+        ctx.get().enqueueWork(() -> BossBarInterpolator.CLIENT.accept(f, Util.getMillis()));
+        ctx.get().setPacketHandled(true);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.PixelmonRaid;
+
+/**
+ * Client-side view of the raid boss bar, fed by BossBarFrames, for the HUD to read every render frame.
+ * Not wired up yet: the HUD (RaidHUDOverlay) draws from BossBarPacket, and the server does not send frames until it
+ * reads this instead (BossBarBandwidthCheck measures what the switch would save).
+ *  - between packets the bar follows the latest frame's drain rate (capped at MAX_EXTRAPOLATE_TICKS)
+ *  - a new frame does not snap the bar: it eases from what is on screen to the new prediction over BLEND_MILLIS
+ *  - frames stamped at or before the current one are ignored (out of order)
+ *
+ * Times are wall-clock milliseconds (Util.getMillis()), so it needs no client classes. Render/client thread only.
+ */
+public final class BossBarInterpolator {
+    /** The client's bar; BossBarFrame packets go here. */
+    public static final BossBarInterpolator CLIENT = new BossBarInterpolator();
+
+    private static final float MILLIS_PER_TICK = 50f;
+    /** One send interval at 4 Hz. */
+    private static final long BLEND_MILLIS = 250L;
+
+    private BossBarFrame frame;
+    private long receivedAt;
+    private float shownAtReceive;
+    private String title = "";
+
+    public void accept(BossBarFrame f, long nowMillis) {
+        if (f == null) return;
+        if (frame != null && f.getServerTick() <= frame.getServerTick()) return;
+        shownAtReceive = frame != null ? displayed(nowMillis) : f.getTarget();
+        frame = f;
+        receivedAt = nowMillis;
+        if (f.getTitle() != null) title = f.getTitle();
+    }
+
+    /** Percent left (0..1) to draw now, or -1 when no frame has arrived. */
+    public float displayed(long nowMillis) {
+        BossBarFrame f = frame;
+        if (f == null) return -1f;
+        long since = Math.max(0L, nowMillis - receivedAt);
+        float predicted = f.predictAfter(since / MILLIS_PER_TICK);
+        if (since >= BLEND_MILLIS) return predicted;
+        return shownAtReceive + (predicted - shownAtReceive) * (since / (float) BLEND_MILLIS);
+    }
+
+    public String getTitle() { return title; }
+
+    public boolean isActive() { return frame != null; }
+
+    /** Drop the bar (raid over, or disconnected). */
+    public void clear() {
+        frame = null;
+        title = "";
+    }
+}
@@ -13,7 +13,6 @@ import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.network.NetworkHooks;
 import net.minecraftforge.fml.common.Mod;
 
-import java.lang.reflect.Method;
 import java.util.UUID;
 
 /**
@@ -57,15 +56,13 @@ public final class CommandsRegistrar {
                             ctx.getSource().sendFailure(new StringTextComponent("Unable to determine server world for player."));
                             return 0;
                         }
-                        RaidSession session = RaidSpawner.getSession(world);
+                        RaidSession session = RaidSessionRegistry.sessionFor(world, player);
                         if (session.getState() == RaidSession.State.IN_BATTLE) {
                             ctx.getSource().sendFailure(new StringTextComponent("A raid is already in progress."));
                             return 0;
                         }
 
-                        session.setState(RaidSession.State.IN_BATTLE);
-                        RaidSpawner.spawnBoss(session);
-                        RaidState.setBattleStartTick(world.getGameTime());
+                        session.startRaid(world.getGameTime());
                         ctx.getSource().sendSuccess(new StringTextComponent("Raid has been manually started."), false);
                         return 1;
                     } catch (Exception e) {
@@ -85,7 +82,7 @@ public final class CommandsRegistrar {
                             ctx.getSource().sendFailure(new StringTextComponent("Unable to determine server world."));
                             return 0;
                         }
-                        RaidSession session = RaidSpawner.getSession(world);
+                        RaidSession session = RaidSessionRegistry.sessionFor(world, ctx.getSource().getEntity());
                         if (session.getState() == RaidSession.State.WAITING) {
                             session.setState(RaidSession.State.COMPLETED);
                             ctx.getSource().sendSuccess(new StringTextComponent("Upcoming raid cancelled."), false);
@@ -111,51 +108,18 @@ public final class CommandsRegistrar {
                             ctx.getSource().sendFailure(new StringTextComponent("Unable to determine server world."));
                             return 0;
                         }
-                        RaidSession session = RaidSpawner.getSession(world);
+                        RaidSession session = RaidSessionRegistry.sessionFor(world, ctx.getSource().getEntity());
                         if (session.getState() != RaidSession.State.IN_BATTLE && session.getState() != RaidSession.State.WAITING) {
                             ctx.getSource().sendFailure(new StringTextComponent("No active or waiting raid to stop."));
                             return 0;
                         }
 
-                        // Attempt to end pixelmon battles for all players in session (robust reflection)
+                        // End pixelmon battles for all players in session (handles resolved once at setup)
                         for (UUID uuid : session.getPlayers()) {
                             try {
                                 ServerPlayerEntity pl = world.getServer().getPlayerList().getPlayer(uuid);
                                 if (pl == null) continue;
-                                try {
-                                    Class<?> brClass = Class.forName("com.pixelmonmod.pixelmon.battles.BattleRegistry");
-                                    // Try BattleRegistry.getBattle(player)
-                                    try {
-                                        Method getBattle = brClass.getMethod("getBattle", ServerPlayerEntity.class);
-                                        Object bc = getBattle.invoke(null, pl);
-                                        if (bc != null) {
-                                            try {
-                                                Method end = bc.getClass().getMethod("endBattle");
-                                                end.invoke(bc);
-                                            } catch (Throwable e) {
-                                                // fallback: try static endBattle(player)
-                                                for (Method m : brClass.getMethods()) {
-                                                    if ("endBattle".equals(m.getName()) && m.getParameterCount() == 1
-                                                            && m.getParameterTypes()[0].isAssignableFrom(ServerPlayerEntity.class)) {
-                                                        try { m.invoke(null, pl); } catch (Throwable ignored) {}
-                                                        break;
-                                                    }
-                                                }
-                                            }
-                                        }
-                                    } catch (NoSuchMethodException nsme) {
-                                        // fallback: try static endBattle(player)
-                                        for (Method m : brClass.getMethods()) {
-                                            if ("endBattle".equals(m.getName()) && m.getParameterCount() == 1
-                                                    && m.getParameterTypes()[0].isAssignableFrom(ServerPlayerEntity.class)) {
-                                                try { m.invoke(null, pl); } catch (Throwable ignored) {}
-                                                break;
-                                            }
-                                        }
-                                    }
-                                } catch (ClassNotFoundException cnf) {
-                                    // Pixelmon not on compile classpath - nothing to do
-                                } catch (Throwable ignored) {}
+                                PixelmonBattleBridge.endBattle(pl);
                             } catch (Throwable ignored) {}
                         }
 
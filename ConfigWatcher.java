@@ -0,0 +1,117 @@
+package com.example.PixelmonRaid;
+
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.event.server.FMLServerStartingEvent;
+import net.minecraftforge.fml.event.server.FMLServerStoppingEvent;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reloads the mod's config files when they change on disk, while the server runs.
+ *  - one WatchService on the config directories, drained by a single daemon thread
+ *  - events are collected until the directory has been quiet for SETTLE_MILLIS, so an editor's
+ *    truncate + write (or a save through several temp files) triggers one reload, not several
+ *  - each config re-parses and validates the file itself and swaps in a new immutable snapshot;
+ *    a file that fails to parse leaves the previous settings in place
+ */
+@Mod.EventBusSubscriber(modid = PixelmonRaidMod.MODID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class ConfigWatcher {
+    private ConfigWatcher() {}
+
+    private static final long SETTLE_MILLIS = 250L;
+
+    private static WatchService service;
+    private static Thread thread;
+
+    @SubscribeEvent
+    public static void onServerStarting(FMLServerStartingEvent evt) {
+        Map<Path, Runnable> reloaders = new HashMap<>();
+        reloaders.put(PixelmonRaidConfig.getInstance().getFile().toAbsolutePath(), () -> {
+            if (PixelmonRaidConfig.getInstance().load()) System.out.println("[PixelmonRaid] Reloaded " + PixelmonRaidConfig.FILENAME);
+        });
+        reloaders.put(RaidRewardsConfig.getInstance().getFile().toAbsolutePath(), () -> {
+            RaidRewardsConfig.getInstance().load();
+            System.out.println("[PixelmonRaid] Reloaded " + RaidRewardsConfig.FILENAME + " (" + RaidRewardsConfig.getInstance().getCatalogue().size() + " usable entries)");
+        });
+        reloaders.put(RaidLootTables.getInstance().getFile().toAbsolutePath(), () -> RaidLootTables.getInstance().reload());
+        start(reloaders);
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(FMLServerStoppingEvent evt) {
+        stop();
+    }
+
+    private static synchronized void start(Map<Path, Runnable> reloaders) {
+        stop();
+        try {
+            WatchService ws = reloaders.keySet().iterator().next().getFileSystem().newWatchService();
+            Set<Path> dirs = new LinkedHashSet<>();
+            for (Path p : reloaders.keySet()) if (p.getParent() != null) dirs.add(p.getParent());
+            for (Path dir : dirs) {
+                dir.register(ws, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            }
+            Thread t = new Thread(() -> run(ws, reloaders), "PixelmonRaid-ConfigWatcher");
+            t.setDaemon(true);
+            t.start();
+            service = ws;
+            thread = t;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("[PixelmonRaid] Config hot reload unavailable: " + e);
+        }
+    }
+
+    private static synchronized void stop() {
+        if (service == null) return;
+        try { service.close(); } catch (IOException ignored) {}
+        if (thread != null) thread.interrupt();
+        service = null;
+        thread = null;
+    }
+
+    private static void run(WatchService ws, Map<Path, Runnable> reloaders) {
+        try {
+            while (true) {
+                Set<Path> changed = new LinkedHashSet<>();
+                collect(ws.take(), changed);
+                // wait for the writes to settle
+                WatchKey more;
+                while ((more = ws.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    collect(more, changed);
+                }
+                for (Path p : changed) {
+                    Runnable reload = reloaders.get(p);
+                    if (reload == null) continue;
+                    try {
+                        reload.run();
+                    } catch (Throwable t) {
+                        System.err.println("[PixelmonRaid] Reload of " + p.getFileName() + " failed: " + t);
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ignored) {
+            // stopped
+        }
+    }
+
+    private static void collect(WatchKey key, Set<Path> changed) {
+        Path dir = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) continue;
+            changed.add(dir.resolve((Path) event.context()).toAbsolutePath());
+        }
+        key.reset();
+    }
+}
@@ -4,41 +4,99 @@ import net.minecraft.entity.player.ServerPlayerEntity;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
 
+/**
+ * Per-raid damage ledger.
+ *  - each participant gets a dense slot when they join (or on their first hit)
+ *  - damage accumulates into primitive long counters, so recording allocates nothing and totals cannot overflow int
+ *  - counters live in fixed-size AtomicLongArray chunks, padded to one cache line per slot so concurrent
+ *    writers for different players do not contend
+ *  - snapshot() copies the counters once for end-of-raid processing
+ *
+ * Slot assignment and growth take a lock; recording and reading are lock-free.
+ */
 public class DamageTracker {
-    // thread-safe map
-    private final Map<UUID, Integer> damageMap = new ConcurrentHashMap<>();
+    private static final int CHUNK_SLOTS = 64;
+    private static final int STRIDE = 8; // 8 longs = 64 bytes between neighbouring slots
+
+    private final Object growLock = new Object();
+    // UUID -> slot; values are boxed once at assignment and only read afterwards
+    private final Map<UUID, Integer> slots = new ConcurrentHashMap<>();
+    private volatile AtomicLongArray[] chunks = new AtomicLongArray[0];
+    private volatile UUID[] idsBySlot = new UUID[0];
+    private volatile int size;
+
+    /** Assign a slot to the participant if they do not have one yet; returns the slot. */
+    public int register(UUID playerId) {
+        Integer slot = slots.get(playerId);
+        if (slot != null) return slot;
+        synchronized (growLock) {
+            slot = slots.get(playerId);
+            if (slot != null) return slot;
+            int s = size;
+            if (s / CHUNK_SLOTS >= chunks.length) {
+                AtomicLongArray[] grown = Arrays.copyOf(chunks, chunks.length + 1);
+                grown[chunks.length] = new AtomicLongArray(CHUNK_SLOTS * STRIDE);
+                chunks = grown;
+            }
+            if (s >= idsBySlot.length) {
+                idsBySlot = Arrays.copyOf(idsBySlot, Math.max(CHUNK_SLOTS, idsBySlot.length * 2));
+            }
+            idsBySlot[s] = playerId;
+            slots.put(playerId, s);
+            size = s + 1; // publish after the slot is fully set up
+            return s;
+        }
+    }
 
     public void recordDamage(ServerPlayerEntity player, int amount) {
-        damageMap.merge(player.getUUID(), amount, Integer::sum);
+        if (player == null) return;
+        recordDamage(player.getUUID(), amount);
+    }
+
+    public void recordDamage(UUID playerId, long amount) {
+        if (playerId == null || amount <= 0) return;
+        int slot = register(playerId);
+        AtomicLongArray[] cs = chunks;
+        int c = slot / CHUNK_SLOTS;
+        if (c < cs.length) cs[c].addAndGet((slot % CHUNK_SLOTS) * STRIDE, amount); // else: reset raced us
+    }
+
+    /** Damage dealt by the participant, as a long (never overflows). */
+    public long getDamageLong(UUID playerId) {
+        Integer slot = slots.get(playerId);
+        if (slot == null) return 0L;
+        AtomicLongArray[] cs = chunks;
+        int c = slot / CHUNK_SLOTS;
+        return c < cs.length ? cs[c].get((slot % CHUNK_SLOTS) * STRIDE) : 0L;
     }
 
     public int getDamage(ServerPlayerEntity player) {
-        return damageMap.getOrDefault(player.getUUID(), 0);
+        return player == null ? 0 : getDamage(player.getUUID());
     }
 
+    /** Damage clamped to int for older callers; prefer getDamageLong. */
     public int getDamage(UUID playerId) {
-        return damageMap.getOrDefault(playerId, 0);
+        return (int) Math.min(Integer.MAX_VALUE, getDamageLong(playerId));
     }
 
     public boolean hasDamage(UUID playerId) {
-        return damageMap.containsKey(playerId);
+        return getDamageLong(playerId) > 0L;
     }
 
-    public Map<UUID, Integer> getAllDamage() {
-        return new HashMap<>(damageMap);
+    /** Copy of all non-zero totals. */
+    public Map<UUID, Long> getAllDamage() {
+        Snapshot snap = snapshot();
+        Map<UUID, Long> out = new HashMap<>(snap.size() * 2);
+        for (int i = 0; i < snap.size(); i++) {
+            if (snap.damageAt(i) > 0L) out.put(snap.idAt(i), snap.damageAt(i));
+        }
+        return out;
     }
 
     public ServerPlayerEntity getTopDamager(ServerPlayerEntity[] players) {
-        UUID topId = null;
-        int maxDamage = 0;
-        for (Map.Entry<UUID, Integer> entry : damageMap.entrySet()) {
-            if (entry.getValue() > maxDamage) {
-                maxDamage = entry.getValue();
-                topId = entry.getKey();
-            }
-        }
-
+        UUID topId = snapshot().topDamager();
         if (topId == null) return null;
 
         for (ServerPlayerEntity player : players) {
@@ -49,7 +107,67 @@ public class DamageTracker {
         return null;
     }
 
+    /** One pass copy of every counter plus the total, for end-of-raid processing. */
+    public Snapshot snapshot() {
+        int n = size;
+        UUID[] ids = idsBySlot;
+        AtomicLongArray[] cs = chunks;
+        n = Math.min(n, Math.min(ids.length, cs.length * CHUNK_SLOTS)); // tolerate a concurrent reset
+        UUID[] outIds = Arrays.copyOf(ids, n);
+        long[] outDamage = new long[n];
+        long total = 0L;
+        for (int i = 0; i < n; i++) {
+            long d = cs[i / CHUNK_SLOTS].get((i % CHUNK_SLOTS) * STRIDE);
+            outDamage[i] = d;
+            total += d;
+        }
+        return new Snapshot(outIds, outDamage, total);
+    }
+
     public void reset() {
-        damageMap.clear();
+        synchronized (growLock) {
+            slots.clear();
+            chunks = new AtomicLongArray[0];
+            idsBySlot = new UUID[0];
+            size = 0;
+        }
+    }
+
+    /** Immutable copy of the ledger, indexed by slot. */
+    public static final class Snapshot {
+        private final UUID[] ids;
+        private final long[] damage;
+        private final long total;
+
+        private Snapshot(UUID[] ids, long[] damage, long total) {
+            this.ids = ids;
+            this.damage = damage;
+            this.total = total;
+        }
+
+        /** A snapshot rebuilt from saved ids and damage (reward replays). */
+        public static Snapshot of(UUID[] ids, long[] damage) {
+            long total = 0L;
+            for (long d : damage) total += d;
+            return new Snapshot(ids.clone(), damage.clone(), total);
+        }
+
+        public int size() { return ids.length; }
+        public UUID idAt(int index) { return ids[index]; }
+        public long damageAt(int index) { return damage[index]; }
+        public long getTotal() { return total; }
+
+        /** Participant with the highest damage, or null when nobody dealt any. */
+        public UUID topDamager() {
+            UUID top = null;
+            long max = 0L;
+            for (int i = 0; i < ids.length; i++) {
+                if (damage[i] > max) {
+                    max = damage[i];
+                    top = ids[i];
+                }
+            }
+            return top;
+        }
     }
 }
@@ -1,49 +1,269 @@
 package com.example.PixelmonRaid;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.CompoundNBT;
-import net.minecraft.util.ResourceLocation;
+import net.minecraft.nbt.ListNBT;
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.common.util.Constants;
+import net.minecraftforge.common.util.INBTSerializable;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
 
-public class DropSet {
+/**
+ * A weighted loot pool.
+ *  - weighted drops are drawn through an AliasTable (O(1) per draw), built on first use after a change
+ *  - rolling takes no lock: it reads an immutable compiled view, so several reward threads can roll one pool at once;
+ *    the pool keeps no generator of its own, every caller passes theirs (reward rolls use the raid's seeded streams)
+ *  - guaranteed drops are handed out on every roll
+ *  - drops flagged rare feed the pity counter: after pityThreshold draws without a rare one,
+ *    the next draw comes from the rare drops only (0 = no pity)
+ *
+ * Templates are never handed out directly; every drawn stack is a copy.
+ */
+public class DropSet implements INBTSerializable<CompoundNBT> {
 
-    private final List<ItemStack> drops;
-    private final Random random = new Random();
+    private static final class Drop {
+        final ItemStack stack;
+        final double weight;
+        final boolean rare;
+
+        Drop(ItemStack stack, double weight, boolean rare) {
+            this.stack = stack;
+            this.weight = weight;
+            this.rare = rare;
+        }
+    }
+
+    private final List<Drop> drops;
+    private final List<ItemStack> guaranteed = new ArrayList<>();
+    private int rolls = 1;
+    private int pityThreshold = 0;
+
+    /** Immutable rolling view of the pool; built lazily, dropped on every change. */
+    private static final class Compiled {
+        final Drop[] drops;
+        final ItemStack[] guaranteed;
+        final int rolls;
+        final int pityThreshold;
+        final AliasTable table;     // null when there are no weighted drops
+        final AliasTable rareTable; // null when no drop is rare
+        final int[] rareIndex;
+
+        Compiled(Drop[] drops, ItemStack[] guaranteed, int rolls, int pityThreshold,
+                 AliasTable table, AliasTable rareTable, int[] rareIndex) {
+            this.drops = drops;
+            this.guaranteed = guaranteed;
+            this.rolls = rolls;
+            this.pityThreshold = pityThreshold;
+            this.table = table;
+            this.rareTable = rareTable;
+            this.rareIndex = rareIndex;
+        }
+    }
+
+    private volatile Compiled compiled;
 
     public DropSet() {
         this.drops = new ArrayList<>();
     }
 
     public void addDrop(ItemStack itemStack) {
-        this.drops.add(itemStack);
+        addDrop(itemStack, 1.0, false);
+    }
+
+    public synchronized void addDrop(ItemStack itemStack, double weight, boolean rare) {
+        if (itemStack == null || itemStack.isEmpty() || !(weight > 0.0)) return;
+        this.drops.add(new Drop(itemStack.copy(), weight, rare));
+        compiled = null;
+    }
+
+    public synchronized void addGuaranteed(ItemStack itemStack) {
+        if (itemStack != null && !itemStack.isEmpty()) guaranteed.add(itemStack.copy());
+        compiled = null;
+    }
+
+    /** Weighted draws per roll (guaranteed drops come on top). */
+    public synchronized void setRolls(int rolls) { this.rolls = Math.max(0, rolls); compiled = null; }
+    public synchronized int getRolls() { return rolls; }
+
+    /** Draws without a rare drop before one is forced; 0 disables pity. */
+    public synchronized void setPityThreshold(int threshold) { this.pityThreshold = Math.max(0, threshold); compiled = null; }
+    public synchronized int getPityThreshold() { return pityThreshold; }
+
+    public synchronized List<ItemStack> getAllDrops() {
+        List<ItemStack> out = new ArrayList<>(drops.size());
+        for (Drop d : drops) out.add(d.stack.copy());
+        return out;
+    }
+
+    public synchronized List<ItemStack> getGuaranteedDrops() {
+        List<ItemStack> out = new ArrayList<>(guaranteed.size());
+        for (ItemStack s : guaranteed) out.add(s.copy());
+        return out;
+    }
+
+    public synchronized boolean isEmpty() {
+        return drops.isEmpty() && guaranteed.isEmpty();
     }
 
-    public List<ItemStack> getAllDrops() {
-        return new ArrayList<>(drops);
+    /** Probability that a plain (non-pity) draw yields the drop at index i, in getAllDrops order. */
+    public double getDropChance(int i) {
+        AliasTable table = compiled().table;
+        return table == null ? 0.0 : table.probability(i);
     }
 
     public ItemStack getRandomDrop() {
-        if (drops.isEmpty()) return ItemStack.EMPTY;
-        return drops.get(random.nextInt(drops.size()));
+        return getRandomDrop(ThreadLocalRandom.current());
+    }
+
+    /** One weighted draw (copy), or EMPTY when the pool has no weighted drops. */
+    public ItemStack getRandomDrop(Random rand) {
+        Compiled c = compiled();
+        if (c.table == null) return ItemStack.EMPTY;
+        return c.drops[c.table.sample(rand)].stack.copy();
+    }
+
+    /**
+     * Roll the pool once: guaranteed drops plus getRolls() weighted draws, appended to out as copies.
+     * pity is the caller's count of draws since the last rare drop; returns the updated count.
+     */
+    public int roll(SplittableRandom rand, int pity, List<ItemStack> out) {
+        return roll(rand, pity, out, null);
+    }
+
+    /** As roll(rand, pity, out); also sets rareDrawn[0] when a draw came up rare (the counter was reset). */
+    public int roll(SplittableRandom rand, int pity, List<ItemStack> out, boolean[] rareDrawn) {
+        Compiled c = compiled();
+        for (ItemStack s : c.guaranteed) out.add(s.copy());
+        if (c.table == null) return pity;
+        for (int r = 0; r < c.rolls; r++) {
+            Drop d;
+            if (c.pityThreshold > 0 && c.rareTable != null && pity >= c.pityThreshold) {
+                d = c.drops[c.rareIndex[c.rareTable.sample(rand)]];
+            } else {
+                d = c.drops[c.table.sample(rand)];
+            }
+            pity = d.rare ? 0 : pity + 1;
+            if (d.rare && rareDrawn != null) rareDrawn[0] = true;
+            out.add(d.stack.copy());
+        }
+        return pity;
+    }
+
+    private Compiled compiled() {
+        Compiled c = compiled;
+        if (c != null) return c;
+        synchronized (this) {
+            if (compiled == null) compiled = compile();
+            return compiled;
+        }
+    }
+
+    // caller holds the lock
+    private Compiled compile() {
+        Drop[] all = drops.toArray(new Drop[0]);
+        ItemStack[] always = guaranteed.toArray(new ItemStack[0]);
+        if (all.length == 0) return new Compiled(all, always, rolls, pityThreshold, null, null, null);
+
+        double[] weights = new double[all.length];
+        int rareCount = 0;
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = all[i].weight;
+            if (all[i].rare) rareCount++;
+        }
+        AliasTable table = AliasTable.of(weights);
+        if (rareCount == 0) return new Compiled(all, always, rolls, pityThreshold, table, null, null);
+
+        double[] rareWeights = new double[rareCount];
+        int[] rareIndex = new int[rareCount];
+        int k = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (!all[i].rare) continue;
+            rareWeights[k] = weights[i];
+            rareIndex[k++] = i;
+        }
+        return new Compiled(all, always, rolls, pityThreshold, table, AliasTable.of(rareWeights), rareIndex);
     }
 
-    public CompoundNBT serializeNBT() {
+    @Override
+    public synchronized CompoundNBT serializeNBT() {
         CompoundNBT tag = new CompoundNBT();
-        // If you want to serialize drops later
+        tag.putInt("Rolls", rolls);
+        tag.putInt("PityThreshold", pityThreshold);
+        ListNBT list = new ListNBT();
+        for (Drop d : drops) {
+            CompoundNBT e = new CompoundNBT();
+            e.put("Stack", d.stack.save(new CompoundNBT()));
+            e.putDouble("Weight", d.weight);
+            e.putBoolean("Rare", d.rare);
+            list.add(e);
+        }
+        tag.put("Drops", list);
+        ListNBT always = new ListNBT();
+        for (ItemStack s : guaranteed) always.add(s.save(new CompoundNBT()));
+        tag.put("Guaranteed", always);
         return tag;
     }
 
-    public void deserializeNBT(CompoundNBT nbt) {
-        // Deserialization logic (future support)
+    @Override
+    public synchronized void deserializeNBT(CompoundNBT nbt) {
+        drops.clear();
+        guaranteed.clear();
+        compiled = null;
+        if (nbt == null) return;
+        rolls = nbt.contains("Rolls") ? Math.max(0, nbt.getInt("Rolls")) : 1;
+        pityThreshold = Math.max(0, nbt.getInt("PityThreshold"));
+        ListNBT list = nbt.getList("Drops", Constants.NBT.TAG_COMPOUND);
+        for (int i = 0; i < list.size(); i++) {
+            CompoundNBT e = list.getCompound(i);
+            addDrop(ItemStack.of(e.getCompound("Stack")), e.getDouble("Weight"), e.getBoolean("Rare"));
+        }
+        ListNBT always = nbt.getList("Guaranteed", Constants.NBT.TAG_COMPOUND);
+        for (int i = 0; i < always.size(); i++) addGuaranteed(ItemStack.of(always.getCompound(i)));
+    }
+
+    public synchronized void toBuffer(PacketBuffer buffer) {
+        buffer.writeVarInt(rolls);
+        buffer.writeVarInt(pityThreshold);
+        buffer.writeVarInt(drops.size());
+        for (Drop d : drops) {
+            buffer.writeItem(d.stack);
+            buffer.writeDouble(d.weight);
+            buffer.writeBoolean(d.rare);
+        }
+        buffer.writeVarInt(guaranteed.size());
+        for (ItemStack s : guaranteed) buffer.writeItem(s);
+    }
+
+    public static DropSet fromBuffer(PacketBuffer buffer) {
+        DropSet set = new DropSet();
+        set.setRolls(buffer.readVarInt());
+        set.setPityThreshold(buffer.readVarInt());
+        int n = buffer.readVarInt();
+        for (int i = 0; i < n; i++) {
+            ItemStack stack = buffer.readItem();
+            double weight = buffer.readDouble();
+            boolean rare = buffer.readBoolean();
+            set.addDrop(stack, weight, rare);
+        }
+        int g = buffer.readVarInt();
+        for (int i = 0; i < g; i++) set.addGuaranteed(buffer.readItem());
+        return set;
     }
 
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder("DropSet{");
-        for (ItemStack item : drops) {
-            sb.append(item.getDisplayName().getString()).append(", ");
+        for (Drop d : drops) {
+            sb.append(d.stack.getDisplayName().getString()).append(" w=").append(d.weight);
+            if (d.rare) sb.append(" rare");
+            sb.append(", ");
+        }
+        for (ItemStack item : guaranteed) {
+            sb.append(item.getDisplayName().getString()).append(" always, ");
         }
         sb.append("}");
         return sb.toString();
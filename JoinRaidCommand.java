@@ -30,12 +30,21 @@ public final class JoinRaidCommand {
         }
 
         ServerWorld world = player.getLevel(); // ServerWorld for server-side player
-        RaidSession session = RaidSpawner.getSession(world);
+        RaidSession session = RaidSessionRegistry.sessionFor(world, player);
         if (session == null) {
             player.sendMessage(new StringTextComponent("No raid session found in this world."), player.getUUID());
             return 0;
         }
 
+        // check the party before anything else so an ineligible player never takes a roster slot
+        if (!session.getPlayers().contains(player.getUUID())) {
+            String refusal = RaidParticipantCache.prepare(player);
+            if (refusal != null) {
+                player.sendMessage(new StringTextComponent(refusal), player.getUUID());
+                return 0;
+            }
+        }
+
         if (teleport) {
             try {
                 double tx = session.getCenter().getX() + 0.5;
@@ -0,0 +1,521 @@
+package com.example.PixelmonRaid;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.storage.FolderName;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.event.server.FMLServerStartingEvent;
+import net.minecraftforge.fml.event.server.FMLServerStoppingEvent;
+import net.minecraftforge.fml.loading.FMLPaths;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * All-time and seasonal raid standings that survive restarts.
+ * Files, under <world>/pixelmonraid/leaderboard:
+ *  - damage-<generation>.log : append-only, one 32-byte record per player per finished raid
+ *  - snapshot-<generation>.dat : compacted totals up to that log generation, ranked all-time and by season,
+ *                              plus a UUID index; memory-mapped so top-N and per-player lookups only touch
+ *                              the pages they read (a new file per compaction, since a mapped file cannot be
+ *                              replaced on every platform)
+ *
+ * The server thread only enqueues one batch per raid; appends, compaction and startup replay run on a
+ * single background thread. Startup maps the snapshot and replays only the log generations written after it.
+ */
+@Mod.EventBusSubscriber(modid = PixelmonRaidMod.MODID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class LifetimeLeaderboard {
+    private static final LifetimeLeaderboard INSTANCE = new LifetimeLeaderboard();
+    public static LifetimeLeaderboard getInstance() { return INSTANCE; }
+
+    private static final int SNAPSHOT_MAGIC = 0x50524C42; // "PRLB"
+    private static final int SNAPSHOT_VERSION = 1;
+    // header: magic, version, season, count (ints), folded log generation (long), reserved (long)
+    private static final int HEADER_BYTES = 32;
+    // ranked row: msb, lsb, allTime, seasonDamage (longs), raids, wins (ints)
+    private static final int ROW_BYTES = 40;
+    // season rank: row index (int)
+    private static final int SEASON_RANK_BYTES = 4;
+    // uuid index: msb, lsb (longs), row index (int); sorted by (msb, lsb)
+    private static final int UUID_INDEX_BYTES = 20;
+    // log record: msb, lsb, damage (longs), season, flags (ints)
+    private static final int LOG_RECORD_BYTES = 32;
+    private static final int FLAG_WON = 1;
+    private static final int COMPACT_AFTER_RECORDS = 4096;
+
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".dat";
+    private static final String LOG_PREFIX = "damage-";
+    private static final String LOG_SUFFIX = ".log";
+
+    /** One player's standing. */
+    public static final class Standing {
+        public final UUID id;
+        public final long damage;
+        public final int raids;
+        public final int wins;
+
+        Standing(UUID id, long damage, int raids, int wins) {
+            this.id = id;
+            this.damage = damage;
+            this.raids = raids;
+            this.wins = wins;
+        }
+    }
+
+    private static final class Totals {
+        long allTime;
+        long season;
+        int raids;
+        int wins;
+    }
+
+    private final ExecutorService io = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "PixelmonRaid-Leaderboard");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** A mapped snapshot file and its header, loaded off the lock and installed under it. */
+    private static final class MappedSnapshot {
+        final MappedByteBuffer buffer;
+        final int count;
+        final int season;
+        final long generation;
+
+        MappedSnapshot(MappedByteBuffer buffer, int count, int season, long generation) {
+            this.buffer = buffer;
+            this.count = count;
+            this.season = season;
+            this.generation = generation;
+        }
+    }
+
+    // --- guarded by this (read by the server thread, replaced by the io thread) ---
+    // the io thread is their only writer, so it may read them without the lock; it locks only to write
+    private MappedByteBuffer snapshot;
+    private int snapshotCount;
+    private int snapshotSeason;
+    private long snapshotGeneration;
+    private final Map<UUID, Totals> tail = new HashMap<>(); // records appended since the snapshot
+    private int season = 1;
+
+    // --- io thread only ---
+    private Path dir;
+    private FileChannel log;
+    private long logGeneration;
+    private int tailRecords;
+
+    private LifetimeLeaderboard() {}
+
+    @SubscribeEvent
+    public static void onServerStarting(FMLServerStartingEvent evt) {
+        Path root;
+        try {
+            root = evt.getServer().getWorldPath(FolderName.ROOT);
+        } catch (Throwable t) {
+            root = FMLPaths.CONFIGDIR.get();
+        }
+        INSTANCE.open(root.resolve("pixelmonraid").resolve("leaderboard"), PixelmonRaidConfig.getInstance().getLeaderboardSeason());
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(FMLServerStoppingEvent evt) {
+        INSTANCE.close();
+    }
+
+    /** Map the snapshot and replay the log tail in the background. Queries return empty until done. */
+    public void open(Path directory, int currentSeason) {
+        io.execute(() -> {
+            try {
+                closeFiles();
+                synchronized (this) {
+                    season = currentSeason;
+                    snapshot = null;
+                    snapshotCount = 0;
+                    tail.clear();
+                }
+                tailRecords = 0;
+                dir = directory;
+                Files.createDirectories(dir);
+                MappedSnapshot loaded = loadSnapshot();
+                synchronized (this) { install(loaded); }
+                long maxGen = snapshotGeneration;
+                for (long gen : generations(LOG_PREFIX, LOG_SUFFIX)) {
+                    if (gen > snapshotGeneration) replay(gen);
+                    maxGen = Math.max(maxGen, gen);
+                }
+                // keep appending to the newest tail generation; start a new one only after a compaction
+                logGeneration = maxGen > snapshotGeneration ? maxGen : maxGen + 1;
+                log = openLog(logGeneration);
+                System.out.println("[PixelmonRaid] Lifetime leaderboard loaded (" + snapshotCount + " players in snapshot, " + tailRecords + " tail records).");
+            } catch (Throwable t) {
+                System.err.println("[PixelmonRaid] Failed to open lifetime leaderboard: " + t);
+                t.printStackTrace();
+            }
+        });
+    }
+
+    /** Flush pending batches and close files. Blocks briefly; call on shutdown only. */
+    public void close() {
+        try {
+            io.submit(this::closeFiles).get(10, TimeUnit.SECONDS);
+        } catch (Throwable t) {
+            t.printStackTrace();
+        }
+    }
+
+    /** Queue the results of one finished raid. Called once per raid from the server thread. */
+    public void recordRaid(DamageTracker.Snapshot results, boolean victory) {
+        if (results == null || results.size() == 0) return;
+        final int raidSeason;
+        synchronized (this) { raidSeason = season; }
+        final ByteBuffer batch = ByteBuffer.allocate(results.size() * LOG_RECORD_BYTES);
+        for (int i = 0; i < results.size(); i++) {
+            UUID id = results.idAt(i);
+            batch.putLong(id.getMostSignificantBits());
+            batch.putLong(id.getLeastSignificantBits());
+            batch.putLong(results.damageAt(i));
+            batch.putInt(raidSeason);
+            batch.putInt(victory ? FLAG_WON : 0);
+        }
+        batch.flip();
+        io.execute(() -> append(batch));
+    }
+
+    /** Top n players, all-time or for the current season. */
+    public synchronized List<Standing> top(int n, boolean seasonal) {
+        if (n <= 0) return Collections.emptyList();
+        Map<UUID, Totals> candidates = new HashMap<>();
+        // players untouched since the snapshot cannot outrank the snapshot's own top n
+        boolean seasonUsable = !seasonal || snapshotSeason == season;
+        if (snapshot != null && seasonUsable) {
+            int limit = Math.min(n, snapshotCount);
+            for (int r = 0; r < limit; r++) {
+                int row = seasonal ? snapshot.getInt(seasonRankOffset() + r * SEASON_RANK_BYTES) : r;
+                candidates.put(rowId(row), rowTotals(row));
+            }
+        }
+        for (Map.Entry<UUID, Totals> e : tail.entrySet()) {
+            candidates.put(e.getKey(), combined(e.getKey()));
+        }
+        List<Standing> list = new ArrayList<>(candidates.size());
+        for (Map.Entry<UUID, Totals> e : candidates.entrySet()) {
+            Totals t = e.getValue();
+            long dmg = seasonal ? t.season : t.allTime;
+            if (dmg > 0L) list.add(new Standing(e.getKey(), dmg, t.raids, t.wins));
+        }
+        list.sort((a, b) -> Long.compare(b.damage, a.damage));
+        return list.size() > n ? new ArrayList<>(list.subList(0, n)) : list;
+    }
+
+    /** A single player's all-time standing (raids and wins are all-time too), or null. */
+    public synchronized Standing get(UUID id) {
+        if (id == null) return null;
+        Totals t = combined(id);
+        return t.raids == 0 ? null : new Standing(id, t.allTime, t.raids, t.wins);
+    }
+
+    public synchronized int getSeason() {
+        return season;
+    }
+
+    // ---------------------------------------------------------------- snapshot access (caller holds lock, or is the io thread)
+
+    private int seasonRankOffset() { return HEADER_BYTES + snapshotCount * ROW_BYTES; }
+    private int uuidIndexOffset() { return seasonRankOffset() + snapshotCount * SEASON_RANK_BYTES; }
+
+    private UUID rowId(int row) {
+        int off = HEADER_BYTES + row * ROW_BYTES;
+        return new UUID(snapshot.getLong(off), snapshot.getLong(off + 8));
+    }
+
+    private Totals rowTotals(int row) {
+        int off = HEADER_BYTES + row * ROW_BYTES;
+        Totals t = new Totals();
+        t.allTime = snapshot.getLong(off + 16);
+        t.season = snapshotSeason == season ? snapshot.getLong(off + 24) : 0L;
+        t.raids = snapshot.getInt(off + 32);
+        t.wins = snapshot.getInt(off + 36);
+        return t;
+    }
+
+    /** Binary search of the memory-mapped UUID index; -1 when the player is not in the snapshot. */
+    private int findRow(UUID id) {
+        if (snapshot == null) return -1;
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        int base = uuidIndexOffset();
+        int lo = 0;
+        int hi = snapshotCount - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int off = base + mid * UUID_INDEX_BYTES;
+            int c = Long.compare(snapshot.getLong(off), msb);
+            if (c == 0) c = Long.compare(snapshot.getLong(off + 8), lsb);
+            if (c == 0) return snapshot.getInt(off + 16);
+            if (c < 0) lo = mid + 1; else hi = mid - 1;
+        }
+        return -1;
+    }
+
+    /** Snapshot totals plus the tail for one player. */
+    private Totals combined(UUID id) {
+        int row = findRow(id);
+        Totals t = row >= 0 ? rowTotals(row) : new Totals();
+        Totals d = tail.get(id);
+        if (d != null) {
+            t.allTime += d.allTime;
+            t.season += d.season;
+            t.raids += d.raids;
+            t.wins += d.wins;
+        }
+        return t;
+    }
+
+    // ---------------------------------------------------------------- io thread
+
+    private void append(ByteBuffer batch) {
+        try {
+            if (log == null) return; // not opened (no server) - drop
+            while (batch.hasRemaining()) log.write(batch);
+            batch.flip();
+            int records = batch.remaining() / LOG_RECORD_BYTES;
+            synchronized (this) { applyRecords(batch); }
+            tailRecords += records;
+            if (tailRecords >= COMPACT_AFTER_RECORDS) compact();
+        } catch (Throwable t) {
+            System.err.println("[PixelmonRaid] Failed to append raid results: " + t);
+            t.printStackTrace();
+        }
+    }
+
+    // caller holds lock
+    private void applyRecords(ByteBuffer records) {
+        while (records.remaining() >= LOG_RECORD_BYTES) {
+            UUID id = new UUID(records.getLong(), records.getLong());
+            long damage = records.getLong();
+            int recSeason = records.getInt();
+            int flags = records.getInt();
+            Totals t = tail.get(id);
+            if (t == null) {
+                t = new Totals();
+                tail.put(id, t);
+            }
+            t.allTime += damage;
+            if (recSeason == season) t.season += damage;
+            t.raids++;
+            if ((flags & FLAG_WON) != 0) t.wins++;
+        }
+    }
+
+    private void replay(long gen) throws IOException {
+        Path file = logPath(gen);
+        long size = Files.size(file);
+        long usable = size - (size % LOG_RECORD_BYTES); // ignore a torn final record
+        if (usable <= 0) return;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocate((int) Math.min(usable, 1 << 20) / LOG_RECORD_BYTES * LOG_RECORD_BYTES);
+            long pos = 0;
+            while (pos < usable) {
+                buf.clear();
+                buf.limit((int) Math.min(buf.capacity(), usable - pos));
+                while (buf.hasRemaining()) {
+                    if (ch.read(buf, pos + buf.position()) <= 0) break;
+                }
+                buf.flip();
+                int records = buf.remaining() / LOG_RECORD_BYTES;
+                if (records == 0) break;
+                synchronized (this) { applyRecords(buf); }
+                tailRecords += records;
+                pos += (long) records * LOG_RECORD_BYTES;
+            }
+        }
+    }
+
+    /** Fold the snapshot and the tail into a new snapshot, then drop the folded log generations. */
+    private void compact() throws IOException {
+        // rotate first so new appends land in a generation the new snapshot does not cover
+        long folded = logGeneration;
+        if (log != null) log.close();
+        logGeneration = folded + 1;
+        log = openLog(logGeneration);
+
+        // no lock: only this thread changes the snapshot and the tail, and readers never block on the merge
+        int currentSeason = season;
+        Map<UUID, Totals> merged = new HashMap<>(snapshotCount + tail.size());
+        for (int row = 0; row < snapshotCount; row++) merged.put(rowId(row), rowTotals(row));
+        for (UUID id : tail.keySet()) merged.put(id, combined(id));
+        List<UUID> ids = new ArrayList<>(merged.keySet());
+        List<Totals> totals = new ArrayList<>(ids.size());
+        for (UUID id : ids) totals.add(merged.get(id));
+
+        int count = ids.size();
+        Integer[] byAllTime = new Integer[count];
+        Integer[] bySeason = new Integer[count];
+        Integer[] byId = new Integer[count];
+        for (int i = 0; i < count; i++) { byAllTime[i] = i; bySeason[i] = i; byId[i] = i; }
+        final List<UUID> fIds = ids;
+        final List<Totals> fTotals = totals;
+        java.util.Arrays.sort(byAllTime, (a, b) -> Long.compare(fTotals.get(b).allTime, fTotals.get(a).allTime));
+        java.util.Arrays.sort(byId, Comparator.<Integer>comparingLong(i -> fIds.get(i).getMostSignificantBits())
+                .thenComparingLong(i -> fIds.get(i).getLeastSignificantBits()));
+        // rows are written in all-time order; season rank and uuid index point at row positions
+        int[] rowOf = new int[count];
+        for (int r = 0; r < count; r++) rowOf[byAllTime[r]] = r;
+        java.util.Arrays.sort(bySeason, (a, b) -> Long.compare(fTotals.get(b).season, fTotals.get(a).season));
+
+        ByteBuffer out = ByteBuffer.allocate(HEADER_BYTES + count * (ROW_BYTES + SEASON_RANK_BYTES + UUID_INDEX_BYTES));
+        out.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_VERSION).putInt(currentSeason).putInt(count).putLong(folded).putLong(0L);
+        for (int r = 0; r < count; r++) {
+            int i = byAllTime[r];
+            Totals t = totals.get(i);
+            out.putLong(ids.get(i).getMostSignificantBits()).putLong(ids.get(i).getLeastSignificantBits());
+            out.putLong(t.allTime).putLong(t.season).putInt(t.raids).putInt(t.wins);
+        }
+        for (int r = 0; r < count; r++) out.putInt(rowOf[bySeason[r]]);
+        for (int r = 0; r < count; r++) {
+            int i = byId[r];
+            out.putLong(ids.get(i).getMostSignificantBits()).putLong(ids.get(i).getLeastSignificantBits()).putInt(rowOf[i]);
+        }
+        out.flip();
+
+        Path target = snapshotPath(folded);
+        Path tmp = dir.resolve(target.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) ch.write(out);
+            ch.force(true);
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        // listing and mapping off the lock; the swap and the tail reset are one step for readers
+        MappedSnapshot loaded = loadSnapshot();
+        synchronized (this) {
+            install(loaded);
+            tail.clear();
+        }
+        tailRecords = 0;
+        for (long gen : generations(LOG_PREFIX, LOG_SUFFIX)) {
+            if (gen <= folded) Files.deleteIfExists(logPath(gen));
+        }
+        // older snapshots may still be mapped by a reader; a failed delete is retried next compaction
+        for (long gen : generations(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (gen < folded) {
+                try { Files.deleteIfExists(snapshotPath(gen)); } catch (IOException ignored) {}
+            }
+        }
+    }
+
+    /** Map the newest valid snapshot (or none). Takes no lock; install() publishes it. */
+    private MappedSnapshot loadSnapshot() throws IOException {
+        MappedByteBuffer mapped = null;
+        int count = 0;
+        int snapSeason = 0;
+        long gen = 0L;
+        List<Long> gens = generations(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        for (int g = gens.size() - 1; g >= 0 && mapped == null; g--) {
+            Path file = snapshotPath(gens.get(g));
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = ch.size();
+                if (size >= HEADER_BYTES) {
+                    MappedByteBuffer m = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                    int c = m.getInt(12);
+                    boolean valid = m.getInt(0) == SNAPSHOT_MAGIC && m.getInt(4) == SNAPSHOT_VERSION && c >= 0
+                            && size == HEADER_BYTES + (long) c * (ROW_BYTES + SEASON_RANK_BYTES + UUID_INDEX_BYTES);
+                    if (valid) {
+                        mapped = m;
+                        count = c;
+                        snapSeason = m.getInt(8);
+                        gen = m.getLong(16);
+                    } else {
+                        System.err.println("[PixelmonRaid] Ignoring invalid leaderboard snapshot " + file);
+                    }
+                }
+            }
+        }
+        return new MappedSnapshot(mapped, count, snapSeason, gen);
+    }
+
+    // caller holds lock
+    private void install(MappedSnapshot m) {
+        snapshot = m.buffer;
+        snapshotCount = m.count;
+        snapshotSeason = m.season;
+        snapshotGeneration = m.generation;
+    }
+
+    /** Generation numbers of the files named prefix + n + suffix, ascending. */
+    private List<Long> generations(String prefix, String suffix) throws IOException {
+        List<Long> gens = new ArrayList<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, prefix + "*" + suffix)) {
+            for (Path p : ds) {
+                String name = p.getFileName().toString();
+                try {
+                    gens.add(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())));
+                } catch (NumberFormatException ignored) {}
+            }
+        }
+        Collections.sort(gens);
+        return gens;
+    }
+
+    private Path snapshotPath(long gen) {
+        return dir.resolve(SNAPSHOT_PREFIX + gen + SNAPSHOT_SUFFIX);
+    }
+
+    private Path logPath(long gen) {
+        return dir.resolve(LOG_PREFIX + gen + LOG_SUFFIX);
+    }
+
+    /** Open a log generation for appending, cutting off a torn final record so records stay aligned. */
+    private FileChannel openLog(long gen) throws IOException {
+        FileChannel ch = FileChannel.open(logPath(gen), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        long size = ch.size();
+        long aligned = size - (size % LOG_RECORD_BYTES);
+        if (aligned != size) ch.truncate(aligned);
+        ch.position(aligned);
+        return ch;
+    }
+
+    private void closeFiles() {
+        try {
+            if (log != null) {
+                log.force(true);
+                log.close();
+            }
+        } catch (Throwable t) {
+            t.printStackTrace();
+        }
+        log = null;
+    }
+
+    /** Display name for a standing: online name, else cached profile name, else the UUID. */
+    public static String displayName(MinecraftServer server, UUID id) {
+        try {
+            if (server != null) {
+                net.minecraft.entity.player.ServerPlayerEntity sp = server.getPlayerList().getPlayer(id);
+                if (sp != null) return sp.getName().getString();
+                com.mojang.authlib.GameProfile gp = server.getProfileCache().get(id);
+                if (gp != null && gp.getName() != null) return gp.getName();
+            }
+        } catch (Throwable ignored) {}
+        return id.toString();
+    }
+}
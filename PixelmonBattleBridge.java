@@ -0,0 +1,596 @@
+package com.example.PixelmonRaid;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.ServerPlayerEntity;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resolve-once bridge to the Pixelmon battle API.
+ *
+ * - Probes Pixelmon a single time (FMLCommonSetupEvent, or lazily on first use) and keeps the
+ *   constructors/methods it finds as MethodHandles
+ * - Pins the strategy that actually worked (BattleBuilder vs BattleRegistry, which PlayerParticipant
+ *   constructor) on first success so later battles skip candidates that are known to fail
+ * - Exposes typed operations so callers never touch java.lang.reflect themselves
+ *
+ * Like the rest of the mod this compiles without Pixelmon on the compile classpath.
+ */
+public final class PixelmonBattleBridge {
+    private PixelmonBattleBridge() {}
+
+    private static final String[] STORAGE_PROXY_CANDIDATES = new String[] {
+            "com.pixelmonmod.pixelmon.api.storage.StorageProxy",
+            "com.pixelmonmod.pixelmon.storage.StorageProxy"
+    };
+    private static final String[] POKEMON_CANDIDATES = new String[] {
+            "com.pixelmonmod.pixelmon.api.pokemon.Pokemon",
+            "com.pixelmonmod.pixelmon.pokemon.Pokemon"
+    };
+    private static final String[] PARTY_TEAM_GETTERS = new String[] { "getTeam", "getTeamPokemon", "getAll", "getList" };
+
+    private static final String BATTLE_BUILDER_CLASS = "com.pixelmonmod.pixelmon.battles.api.BattleBuilder";
+    private static final String ENTITY_PARTICIPANT_CLASS = "com.pixelmonmod.pixelmon.battles.controller.participants.EntityParticipant";
+    private static final String PLAYER_PARTICIPANT_CLASS = "com.pixelmonmod.pixelmon.battles.controller.participants.PlayerParticipant";
+    private static final String BATTLE_PARTICIPANT_CLASS = "com.pixelmonmod.pixelmon.battles.controller.participants.BattleParticipant";
+    private static final String BATTLE_REGISTRY_CLASS = "com.pixelmonmod.pixelmon.battles.BattleRegistry";
+    private static final String BATTLE_CONTROLLER_CLASS = "com.pixelmonmod.pixelmon.battles.controller.BattleController";
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+    private static final MethodType GENERIC = MethodType.methodType(Object.class, Object[].class);
+
+    private static final int STRATEGY_UNKNOWN = 0;
+    private static final int STRATEGY_BUILDER = 1;
+    private static final int STRATEGY_REGISTRY = 2;
+
+    /** Argument layouts understood for PlayerParticipant constructors, in preference order. */
+    private enum ParticipantShape { PLAYER_LIST_INT, LIST_INT, PLAYER_ARRAY, FLAG_PLAYER_ARRAY, PLAYER }
+
+    private static final class ParticipantCtor {
+        final ParticipantShape shape;
+        final MethodHandle handle; // (Object[])Object
+        final int arity;
+        final Class<?> arrayType;  // array parameter type for *_ARRAY shapes, else null
+
+        ParticipantCtor(ParticipantShape shape, MethodHandle handle, int arity, Class<?> arrayType) {
+            this.shape = shape;
+            this.handle = handle;
+            this.arity = arity;
+            this.arrayType = arrayType;
+        }
+    }
+
+    private static volatile boolean probed = false;
+
+    // participants
+    private static Class<?> battleParticipantClass;
+    private static Class<?> pokemonClass;
+    private static ParticipantCtor[] participantCtors = new ParticipantCtor[0];
+    private static volatile int pinnedParticipant = -1;
+
+    // party lookup
+    private static MethodHandle getParty;   // (Object[])Object
+    private static boolean partyByUuid;
+    private static volatile Class<?> teamOwnerClass;
+    private static volatile MethodHandle teamGetter;
+
+    // boss participant: EntityParticipant$Builder or single-arg ctor
+    private static MethodHandle bossBuilderNew;
+    private static MethodHandle bossBuilderEntity;
+    private static MethodHandle bossBuilderBuild;
+    private static MethodHandle bossCtor;
+
+    // battle start
+    private static MethodHandle builderFactory;
+    private static MethodHandle builderPlayers;
+    private static MethodHandle builderOpponents;
+    private static MethodHandle builderStart;
+    private static MethodHandle builderBuild;
+    private static MethodHandle registryStart;
+    private static int registryStartArity;
+    private static volatile int startStrategy = STRATEGY_UNKNOWN;
+
+    // battle lookup / end
+    private static MethodHandle registryGetBattle;
+    private static MethodHandle registryEndBattle;
+    private static MethodHandle controllerEndBattle;
+
+    /** Probe the Pixelmon API. Safe to call more than once; only the first call does any work. */
+    public static synchronized void init() {
+        if (probed) return;
+        ClassLoader cl = PixelmonBattleBridge.class.getClassLoader();
+        try {
+            battleParticipantClass = findClass(cl, BATTLE_PARTICIPANT_CLASS);
+            pokemonClass = findFirstClass(cl, POKEMON_CANDIDATES);
+            probeParty(cl);
+            probeParticipants(cl);
+            probeBossParticipant(cl);
+            probeBuilder(cl);
+            probeRegistry(cl);
+        } catch (Throwable t) {
+            System.err.println("[PixelmonRaid] PixelmonBattleBridge probe failed: " + t);
+            t.printStackTrace();
+        }
+        probed = true;
+        System.out.println("[PixelmonRaid] PixelmonBattleBridge ready (builder=" + (builderFactory != null)
+                + ", registry=" + (registryStart != null) + ", participantCtors=" + participantCtors.length + ").");
+    }
+
+    private static void ensureProbed() {
+        if (!probed) init();
+    }
+
+    /** True when enough of the Pixelmon API was found to start a battle. */
+    public static boolean isAvailable() {
+        ensureProbed();
+        return battleParticipantClass != null && participantCtors.length > 0
+                && (bossBuilderBuild != null || bossCtor != null)
+                && (builderFactory != null || registryStart != null);
+    }
+
+    // ---------------------------
+    // Probing
+    // ---------------------------
+
+    private static void probeParty(ClassLoader cl) throws IllegalAccessException {
+        Class<?> storage = findFirstClass(cl, STORAGE_PROXY_CANDIDATES);
+        if (storage == null) {
+            System.err.println("[PixelmonRaid] No StorageProxy found in Pixelmon API (tried candidates).");
+            return;
+        }
+        Method found = null;
+        try { found = storage.getMethod("getParty", ServerPlayerEntity.class); } catch (NoSuchMethodException ignored) {}
+        if (found == null) {
+            try { found = storage.getMethod("getParty", UUID.class); } catch (NoSuchMethodException ignored) {}
+        }
+        if (found == null) {
+            for (Method m : storage.getMethods()) {
+                if ("getParty".equals(m.getName()) && m.getParameterCount() == 1 && Modifier.isStatic(m.getModifiers())) { found = m; break; }
+            }
+        }
+        if (found == null) {
+            System.err.println("[PixelmonRaid] StorageProxy.getParty(...) not found.");
+            return;
+        }
+        Class<?> param = found.getParameterTypes()[0];
+        partyByUuid = !param.isAssignableFrom(ServerPlayerEntity.class) && param.isAssignableFrom(UUID.class);
+        getParty = generic(LOOKUP.unreflect(found));
+    }
+
+    private static void probeParticipants(ClassLoader cl) throws IllegalAccessException {
+        Class<?> ppClass = findClass(cl, PLAYER_PARTICIPANT_CLASS);
+        if (ppClass == null) return;
+
+        List<ParticipantCtor> out = new ArrayList<>();
+        for (ParticipantShape shape : ParticipantShape.values()) {
+            for (Constructor<?> c : ppClass.getConstructors()) {
+                Class<?>[] pts = c.getParameterTypes();
+                Class<?> arrayType = null;
+                boolean match;
+                switch (shape) {
+                    case PLAYER_LIST_INT:
+                        match = pts.length == 3 && ServerPlayerEntity.class.isAssignableFrom(pts[0])
+                                && List.class.isAssignableFrom(pts[1]) && isIntLike(pts[2]);
+                        break;
+                    case LIST_INT:
+                        match = pts.length == 2 && List.class.isAssignableFrom(pts[0]) && isIntLike(pts[1]);
+                        break;
+                    case PLAYER_ARRAY:
+                        match = pts.length >= 2 && ServerPlayerEntity.class.isAssignableFrom(pts[0]) && pts[1].isArray();
+                        if (match) arrayType = pts[1];
+                        break;
+                    case FLAG_PLAYER_ARRAY:
+                        match = pts.length >= 3 && pts[0] == boolean.class
+                                && ServerPlayerEntity.class.isAssignableFrom(pts[1]) && pts[2].isArray();
+                        if (match) arrayType = pts[2];
+                        break;
+                    default:
+                        match = pts.length == 1 && ServerPlayerEntity.class.isAssignableFrom(pts[0]);
+                        break;
+                }
+                if (match) out.add(new ParticipantCtor(shape, generic(LOOKUP.unreflectConstructor(c)), pts.length, arrayType));
+            }
+        }
+        participantCtors = out.toArray(new ParticipantCtor[0]);
+    }
+
+    private static void probeBossParticipant(ClassLoader cl) throws Exception {
+        Class<?> epClass = findClass(cl, ENTITY_PARTICIPANT_CLASS);
+        if (epClass == null) return;
+
+        Class<?> epBuilderClass = findClass(cl, ENTITY_PARTICIPANT_CLASS + "$Builder");
+        if (epBuilderClass == null) {
+            for (Class<?> inner : epClass.getDeclaredClasses()) {
+                if ("Builder".equals(inner.getSimpleName())) { epBuilderClass = inner; break; }
+            }
+        }
+        if (epBuilderClass != null) {
+            try {
+                Method setter = null;
+                for (Method m : epBuilderClass.getMethods()) {
+                    if ("entity".equals(m.getName()) && m.getParameterCount() == 1) { setter = m; break; }
+                }
+                if (setter == null) {
+                    for (Method m : epBuilderClass.getMethods()) {
+                        if (m.getName().toLowerCase().contains("entity") && m.getParameterCount() == 1) { setter = m; break; }
+                    }
+                }
+                if (setter != null) {
+                    bossBuilderNew = generic(LOOKUP.unreflectConstructor(epBuilderClass.getConstructor()));
+                    bossBuilderEntity = generic(LOOKUP.unreflect(setter));
+                    bossBuilderBuild = generic(LOOKUP.unreflect(epBuilderClass.getMethod("build")));
+                }
+            } catch (NoSuchMethodException ignored) {
+                bossBuilderBuild = null;
+            }
+        }
+
+        for (Constructor<?> c : epClass.getConstructors()) {
+            Class<?>[] pts = c.getParameterTypes();
+            if (pts.length == 1 && pts[0].isAssignableFrom(Entity.class) || pts.length == 1 && Entity.class.isAssignableFrom(pts[0])) {
+                bossCtor = generic(LOOKUP.unreflectConstructor(c));
+                break;
+            }
+        }
+    }
+
+    private static void probeBuilder(ClassLoader cl) throws IllegalAccessException {
+        Class<?> builderClass = findClass(cl, BATTLE_BUILDER_CLASS);
+        if (builderClass == null) {
+            System.out.println("[PixelmonRaid] BattleBuilder class not found - builder path disabled.");
+            return;
+        }
+
+        MethodHandle factory = null;
+        for (String name : new String[]{"create", "builder"}) {
+            try {
+                Method m = builderClass.getMethod(name);
+                if (Modifier.isStatic(m.getModifiers())) { factory = generic(LOOKUP.unreflect(m)); break; }
+            } catch (NoSuchMethodException ignored) {}
+        }
+        if (factory == null) {
+            try {
+                Constructor<?> ctor = builderClass.getDeclaredConstructor();
+                ctor.setAccessible(true);
+                factory = generic(MethodHandles.lookup().unreflectConstructor(ctor));
+            } catch (Throwable ignored) {}
+        }
+
+        MethodHandle players = null, opponents = null, start = null, build = null;
+        for (Method m : builderClass.getMethods()) {
+            String name = m.getName().toLowerCase();
+            boolean takesArray = m.getParameterCount() == 1 && m.getParameterTypes()[0].isArray();
+            if (players == null && takesArray && name.contains("player")) players = generic(LOOKUP.unreflect(m));
+            if (opponents == null && takesArray && name.contains("opponent")) opponents = generic(LOOKUP.unreflect(m));
+            if (start == null && "start".equals(m.getName()) && m.getParameterCount() == 0) start = generic(LOOKUP.unreflect(m));
+            if (build == null && "build".equals(m.getName()) && m.getParameterCount() == 0) build = generic(LOOKUP.unreflect(m));
+        }
+
+        if (factory == null || players == null || opponents == null || (start == null && build == null)) {
+            System.err.println("[PixelmonRaid] BattleBuilder found but unusable (missing factory/players/opponents/start).");
+            return;
+        }
+        builderFactory = factory;
+        builderPlayers = players;
+        builderOpponents = opponents;
+        builderStart = start;
+        builderBuild = build;
+    }
+
+    private static void probeRegistry(ClassLoader cl) throws IllegalAccessException {
+        Class<?> registryClass = findClass(cl, BATTLE_REGISTRY_CLASS);
+        if (registryClass == null) return;
+
+        for (Method m : registryClass.getMethods()) {
+            if (!Modifier.isStatic(m.getModifiers())) continue;
+            Class<?>[] pts = m.getParameterTypes();
+            if (registryStart == null && "startBattle".equals(m.getName()) && pts.length >= 2 && pts[0].isArray() && pts[1].isArray()) {
+                registryStart = generic(LOOKUP.unreflect(m));
+                registryStartArity = pts.length;
+            } else if (registryGetBattle == null && "getBattle".equals(m.getName()) && pts.length == 1
+                    && pts[0].isAssignableFrom(ServerPlayerEntity.class)) {
+                registryGetBattle = generic(LOOKUP.unreflect(m));
+            } else if (registryEndBattle == null && "endBattle".equals(m.getName()) && pts.length == 1
+                    && pts[0].isAssignableFrom(ServerPlayerEntity.class)) {
+                registryEndBattle = generic(LOOKUP.unreflect(m));
+            }
+        }
+
+        Class<?> controllerClass = findClass(cl, BATTLE_CONTROLLER_CLASS);
+        if (controllerClass != null) {
+            try {
+                controllerEndBattle = generic(LOOKUP.unreflect(controllerClass.getMethod("endBattle")));
+            } catch (NoSuchMethodException ignored) {}
+        }
+    }
+
+    // ---------------------------
+    // Typed operations
+    // ---------------------------
+
+    /** The player's party as a list of Pokemon, or null when Pixelmon storage could not be reached. */
+    public static List<?> getParty(ServerPlayerEntity sp) {
+        ensureProbed();
+        if (sp == null || getParty == null) return null;
+        try {
+            Object party = (Object) getParty.invokeExact(new Object[]{ partyByUuid ? sp.getUUID() : sp });
+            if (party == null) return null;
+            if (party instanceof List) return (List<?>) party;
+
+            MethodHandle getter = teamGetterFor(party.getClass());
+            if (getter != null) {
+                Object team = (Object) getter.invokeExact(new Object[]{ party });
+                if (team instanceof List) return (List<?>) team;
+            }
+            if (party instanceof Iterable) {
+                List<Object> out = new ArrayList<>();
+                for (Object o : (Iterable<?>) party) out.add(o);
+                return out;
+            }
+        } catch (Throwable t) {
+            System.err.println("[PixelmonRaid] Failed to fetch player's party: " + t);
+        }
+        return null;
+    }
+
+    private static MethodHandle teamGetterFor(Class<?> partyClass) {
+        if (teamOwnerClass == partyClass) return teamGetter;
+        MethodHandle found = null;
+        for (String name : PARTY_TEAM_GETTERS) {
+            try {
+                Method m = partyClass.getMethod(name);
+                if (List.class.isAssignableFrom(m.getReturnType())) { found = generic(LOOKUP.unreflect(m)); break; }
+            } catch (Throwable ignored) {}
+        }
+        teamGetter = found;
+        teamOwnerClass = partyClass;
+        return found;
+    }
+
+    /**
+     * Build a PlayerParticipant for the player using their actual party.
+     * Returns null when the party is empty (Pixelmon NPEs on an empty participant) or no constructor fits.
+     */
+    public static Object createPlayerParticipant(ServerPlayerEntity sp) {
+        return createPlayerParticipant(sp, getParty(sp));
+    }
+
+    /** As above, with a party fetched earlier (see RaidParticipantCache); null party means "unknown". */
+    public static Object createPlayerParticipant(ServerPlayerEntity sp, List<?> party) {
+        ensureProbed();
+        if (sp == null || participantCtors.length == 0) return null;
+
+        if (party != null && party.isEmpty()) {
+            System.err.println("[PixelmonRaid] Player " + sp.getName().getString() + " has no Pokémon in party. Aborting participant creation.");
+            return null;
+        }
+
+        int pinned = pinnedParticipant;
+        if (pinned >= 0) {
+            Object pp = tryParticipant(participantCtors[pinned], sp, party);
+            if (pp != null || party != null) return pp;
+        }
+
+        for (int i = 0; i < participantCtors.length; i++) {
+            if (i == pinned) continue;
+            Object pp = tryParticipant(participantCtors[i], sp, party);
+            if (pp != null) {
+                // only pin when the real party was used; a party-less fallback says nothing about the ctor
+                if (party != null) pinnedParticipant = i;
+                return pp;
+            }
+        }
+        System.err.println("[PixelmonRaid] No PlayerParticipant constructor accepted player " + sp.getName().getString());
+        return null;
+    }
+
+    private static Object tryParticipant(ParticipantCtor ctor, ServerPlayerEntity sp, List<?> party) {
+        if (party == null && ctor.shape != ParticipantShape.PLAYER) return null;
+        try {
+            Object[] args = new Object[ctor.arity];
+            switch (ctor.shape) {
+                case PLAYER_LIST_INT:
+                    args[0] = sp; args[1] = party; args[2] = 1;
+                    break;
+                case LIST_INT:
+                    args[0] = party; args[1] = 1;
+                    break;
+                case PLAYER_ARRAY:
+                    args[0] = sp; args[1] = toArray(party, ctor.arrayType);
+                    break;
+                case FLAG_PLAYER_ARRAY:
+                    args[0] = Boolean.FALSE; args[1] = sp; args[2] = toArray(party, ctor.arrayType);
+                    break;
+                default:
+                    args[0] = sp;
+                    break;
+            }
+            return (Object) ctor.handle.invokeExact(args);
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    private static Object toArray(List<?> party, Class<?> arrayType) {
+        Class<?> component = arrayType.getComponentType();
+        if (pokemonClass != null && component.isAssignableFrom(pokemonClass)) component = pokemonClass;
+        Object arr = Array.newInstance(component, party.size());
+        for (int i = 0; i < party.size(); i++) Array.set(arr, i, party.get(i));
+        return arr;
+    }
+
+    /** Build an EntityParticipant for the boss, or null when Pixelmon refuses. */
+    public static Object createBossParticipant(Entity boss) {
+        ensureProbed();
+        if (boss == null) return null;
+        if (bossBuilderBuild != null) {
+            try {
+                Object builder = (Object) bossBuilderNew.invokeExact(new Object[0]);
+                Object unused = (Object) bossBuilderEntity.invokeExact(new Object[]{ builder, boss });
+                Object built = (Object) bossBuilderBuild.invokeExact(new Object[]{ builder });
+                if (built != null) return built;
+            } catch (Throwable t) {
+                System.err.println("[PixelmonRaid] EntityParticipant.Builder failed: " + t);
+            }
+        }
+        if (bossCtor != null) {
+            try {
+                return (Object) bossCtor.invokeExact(new Object[]{ boss });
+            } catch (Throwable t) {
+                System.err.println("[PixelmonRaid] EntityParticipant constructor failed: " + t);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Start one battle with the given players against the boss.
+     * Uses whichever of BattleBuilder / BattleRegistry.startBattle worked last time.
+     */
+    public static boolean startBattle(List<ServerPlayerEntity> players, Entity boss) {
+        ensureProbed();
+        if (players == null || players.isEmpty() || boss == null || battleParticipantClass == null) return false;
+
+        Object runtimePlayers = Array.newInstance(battleParticipantClass, players.size());
+        for (int i = 0; i < players.size(); i++) {
+            Object pp = createPlayerParticipant(players.get(i), RaidParticipantCache.partyFor(players.get(i)));
+            if (pp == null) {
+                System.err.println("[PixelmonRaid] Could not create PlayerParticipant for player " + players.get(i).getName().getString());
+                return false;
+            }
+            Array.set(runtimePlayers, i, pp);
+        }
+
+        Object bossParticipant = createBossParticipant(boss);
+        if (bossParticipant == null) {
+            System.err.println("[PixelmonRaid] Could not create boss participant.");
+            return false;
+        }
+        Object runtimeBoss = Array.newInstance(battleParticipantClass, 1);
+        Array.set(runtimeBoss, 0, bossParticipant);
+
+        return startBattle(runtimePlayers, runtimeBoss);
+    }
+
+    /** Start a battle from prebuilt BattleParticipant[] arrays. */
+    static boolean startBattle(Object runtimePlayers, Object runtimeBoss) {
+        int strategy = startStrategy;
+        if (strategy != STRATEGY_REGISTRY && builderFactory != null) {
+            if (startWithBuilder(runtimePlayers, runtimeBoss)) {
+                startStrategy = STRATEGY_BUILDER;
+                return true;
+            }
+            if (strategy == STRATEGY_BUILDER) return false;
+        }
+        if (registryStart != null && startWithRegistry(runtimePlayers, runtimeBoss)) {
+            startStrategy = STRATEGY_REGISTRY;
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean startWithBuilder(Object runtimePlayers, Object runtimeBoss) {
+        try {
+            Object builder = (Object) builderFactory.invokeExact(new Object[0]);
+            Object afterPlayers = (Object) builderPlayers.invokeExact(new Object[]{ builder, runtimePlayers });
+            Object afterOpp = (Object) builderOpponents.invokeExact(new Object[]{ afterPlayers, runtimeBoss });
+            if (builderStart != null) {
+                Object unused = (Object) builderStart.invokeExact(new Object[]{ afterOpp });
+                System.out.println("[PixelmonRaid] Battle started via BattleBuilder.start().");
+                return true;
+            }
+            Object controller = (Object) builderBuild.invokeExact(new Object[]{ afterOpp });
+            if (controller != null) {
+                System.out.println("[PixelmonRaid] Battle started via BattleBuilder.build().");
+                return true;
+            }
+        } catch (Throwable t) {
+            System.err.println("[PixelmonRaid] BattleBuilder path error: " + t);
+        }
+        return false;
+    }
+
+    private static boolean startWithRegistry(Object runtimePlayers, Object runtimeBoss) {
+        try {
+            Object[] args = new Object[registryStartArity];
+            args[0] = runtimePlayers;
+            args[1] = runtimeBoss;
+            Object controller = (Object) registryStart.invokeExact(args);
+            if (controller == null) {
+                System.out.println("[PixelmonRaid] startBattle returned null (likely Pixelmon declined to start).");
+                return false;
+            }
+            System.out.println("[PixelmonRaid] Battle started (BattleRegistry).");
+            return true;
+        } catch (Throwable t) {
+            System.err.println("[PixelmonRaid] BattleRegistry.startBattle error: " + t);
+            return false;
+        }
+    }
+
+    /** The player's current BattleController, or null. */
+    public static Object getBattle(ServerPlayerEntity sp) {
+        ensureProbed();
+        if (sp == null || registryGetBattle == null) return null;
+        try {
+            return (Object) registryGetBattle.invokeExact(new Object[]{ sp });
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    /** End the player's current battle, if any. Returns true when a battle was ended. */
+    public static boolean endBattle(ServerPlayerEntity sp) {
+        ensureProbed();
+        if (sp == null) return false;
+        Object bc = getBattle(sp);
+        if (bc != null && controllerEndBattle != null) {
+            try {
+                Object unused = (Object) controllerEndBattle.invokeExact(new Object[]{ bc });
+                return true;
+            } catch (Throwable t) {
+                System.err.println("[PixelmonRaid] BattleController.endBattle failed: " + t);
+            }
+        }
+        if ((bc != null || registryGetBattle == null) && registryEndBattle != null) {
+            try {
+                Object unused = (Object) registryEndBattle.invokeExact(new Object[]{ sp });
+                return true;
+            } catch (Throwable ignored) {}
+        }
+        return false;
+    }
+
+    // ---------------------------
+    // Helpers
+    // ---------------------------
+
+    private static MethodHandle generic(MethodHandle mh) {
+        return mh.asFixedArity().asSpreader(Object[].class, mh.type().parameterCount()).asType(GENERIC);
+    }
+
+    private static boolean isIntLike(Class<?> c) {
+        return c == int.class || c == Integer.class;
+    }
+
+    private static Class<?> findClass(ClassLoader cl, String name) {
+        try { return Class.forName(name, true, cl); } catch (Throwable t) { return null; }
+    }
+
+    private static Class<?> findFirstClass(ClassLoader cl, String[] candidates) {
+        for (String n : candidates) {
+            Class<?> c = findClass(cl, n);
+            if (c != null) return c;
+        }
+        return null;
+    }
+}
@@ -13,105 +13,229 @@ import java.util.Arrays;
  * Simple JSON configuration for PixelmonRaid.
  * File: config/pixelmonraid_config.json
  *
- * This version avoids serializing runtime fields (Path etc) by using a lightweight DTO
- * for Gson serialization. This prevents Gson/TypeToken recursion/StackOverflow issues.
+ * Settings are held in an immutable Snapshot published through one volatile reference:
+ *  - readers call current() (or the getters below) with no locks or copies; hold on to the snapshot for a
+ *    consistent view of several values
+ *  - load() parses and validates the file into a new snapshot and swaps it in; a file that does not parse
+ *    keeps the previous snapshot
+ *  - ConfigWatcher calls load() whenever the file changes on disk
+ *
+ * Gson only ever sees the ConfigData DTO, never this class (avoids TypeToken recursion on the Path field).
  */
 public final class PixelmonRaidConfig {
     private static final PixelmonRaidConfig INSTANCE = new PixelmonRaidConfig();
     public static PixelmonRaidConfig getInstance() { return INSTANCE; }
 
-    private static final String FILENAME = "pixelmonraid_config.json";
+    public static final String FILENAME = "pixelmonraid_config.json";
 
-    // runtime-only (do not serialize)
-    private transient final Path file;
+    private final Path file;
+    private volatile Snapshot current = new Snapshot(new ConfigData());
 
-    // --- Configurable properties with defaults ---
-    public double hpMultiplier = 10.0;        // multiplier applied to base HP to make pool (default: 10x)
-    public double poolMultiplier = 1.0;       // extra multiplier (kept for flexibility)
-    public double[] phaseThresholds = new double[]{0.25, 0.50, 0.75}; // fractions of DONE to enter phases 1..3
-    public double sendThreshold = 0.005;      // fraction change required before sending bossbar (0.005 == 0.5%)
-    public double tierA_cutoff = 0.25;        // >= 25% -> Tier A
-    public double tierB_cutoff = 0.10;        // >= 10% -> Tier B
-    public int maxPlayersPerRaid = 50;        // cap on players in a raid
-    public int defaultRaidDurationSeconds = 120; // raid duration in seconds (2 min)
+    /** The settings in effect right now. */
+    public static Snapshot current() { return INSTANCE.current; }
 
     private PixelmonRaidConfig() {
         file = FMLPaths.CONFIGDIR.get().resolve(FILENAME);
         load(); // attempt to load existing config or create one
     }
 
-    // DTO used only for (de)serialization
+    // DTO used only for (de)serialization; field names are the JSON keys
     private static class ConfigData {
-        public double hpMultiplier = 10.0;
-        public double poolMultiplier = 1.0;
-        public double[] phaseThresholds = new double[]{0.25, 0.50, 0.75};
-        public double sendThreshold = 0.005;
-        public double tierA_cutoff = 0.25;
-        public double tierB_cutoff = 0.10;
-        public int maxPlayersPerRaid = 50;
-        public int defaultRaidDurationSeconds = 120;
+        public double hpMultiplier = 10.0;        // multiplier applied to base HP to make pool (default: 10x)
+        public double poolMultiplier = 1.0;       // extra multiplier (kept for flexibility)
+        public double[] phaseThresholds = new double[]{0.25, 0.50, 0.75}; // fractions of DONE to enter phases 1..3
+        public double[] enrageMultipliers = new double[]{1.25, 1.50, 2.00}; // boss damage x difficulty in phases 1..3
+        public double sendThreshold = 0.005;      // fraction change (or predicted-bar gap, for frames) required before sending bossbar (0.005 == 0.5%)
+        public int bossBarFlushIntervalTicks = 1; // boss-bar packets are flushed at most once every N ticks
+        public double tierA_cutoff = 0.25;        // >= 25% -> Tier A
+        public double tierB_cutoff = 0.10;        // >= 10% -> Tier B
+        public int maxPlayersPerRaid = 50;        // cap on players in a raid
+        public int defaultRaidDurationSeconds = 120; // raid duration in seconds (2 min)
+        public int leaderboardSeason = 1;         // bump to start a new seasonal leaderboard (read at server start)
+        public int rewardApplyBudgetMicros = 2000; // server-thread time per tick spent handing out queued raid rewards
+        public int raidTaskBudgetMillis = 10;     // server-thread time per tick for queued raid start/end work
+        public int admissionsPerTick = 2;         // battle joins attempted per tick (large rosters join over several ticks)
+        public int shardSize = 4;                 // players per battle controller (shards share the boss pool)
+        public int shardTickBudgetMillis = 20;    // tick time raid battles may use; shards grow past shardSize when exceeded
+        public int rewardParallelThreshold = 64;  // rosters larger than this roll their rewards in parallel
+        public boolean vanillaBossBar = false;    // drive the raid bar through vanilla ServerBossInfo (no client mod needed)
+    }
+
+    /** One validated, immutable set of settings. */
+    public static final class Snapshot {
+        private final double hpMultiplier;
+        private final double poolMultiplier;
+        private final double[] phaseThresholds;
+        private final double[] enrageMultipliers;
+        private final double sendThreshold;
+        private final int bossBarFlushIntervalTicks;
+        private final double tierACutoff;
+        private final double tierBCutoff;
+        private final int maxPlayersPerRaid;
+        private final int defaultRaidDurationSeconds;
+        private final int leaderboardSeason;
+        private final int rewardApplyBudgetMicros;
+        private final int raidTaskBudgetMillis;
+        private final int admissionsPerTick;
+        private final int shardSize;
+        private final int shardTickBudgetMillis;
+        private final int rewardParallelThreshold;
+        private final boolean vanillaBossBar;
+
+        private Snapshot(ConfigData d) {
+            hpMultiplier = Math.max(0.0, d.hpMultiplier);
+            poolMultiplier = Math.max(0.0, d.poolMultiplier);
+            phaseThresholds = validPhases(d.phaseThresholds);
+            enrageMultipliers = validEnrage(d.enrageMultipliers);
+            sendThreshold = Math.max(0.0, d.sendThreshold);
+            bossBarFlushIntervalTicks = Math.max(1, d.bossBarFlushIntervalTicks);
+            double a = clamp01(d.tierA_cutoff);
+            double b = clamp01(d.tierB_cutoff);
+            if (b > a) {
+                System.err.println("[PixelmonRaid] tierB_cutoff (" + b + ") is above tierA_cutoff (" + a + "); using " + a + " for both.");
+                b = a;
+            }
+            tierACutoff = a;
+            tierBCutoff = b;
+            maxPlayersPerRaid = Math.max(1, d.maxPlayersPerRaid);
+            defaultRaidDurationSeconds = Math.max(10, d.defaultRaidDurationSeconds);
+            leaderboardSeason = Math.max(1, d.leaderboardSeason);
+            rewardApplyBudgetMicros = Math.max(100, d.rewardApplyBudgetMicros);
+            raidTaskBudgetMillis = Math.max(1, Math.min(40, d.raidTaskBudgetMillis));
+            admissionsPerTick = Math.max(1, d.admissionsPerTick);
+            shardSize = Math.max(1, Math.min(RaidShards.MAX_SHARD_SIZE, d.shardSize));
+            shardTickBudgetMillis = Math.max(1, Math.min(45, d.shardTickBudgetMillis));
+            rewardParallelThreshold = Math.max(1, d.rewardParallelThreshold);
+            vanillaBossBar = d.vanillaBossBar;
+        }
+
+        private static double clamp01(double v) { return Math.max(0.0, Math.min(1.0, v)); }
+
+        private static double[] validPhases(double[] p) {
+            double[] fallback = new double[]{0.25, 0.5, 0.75};
+            if (p == null || p.length != 3) {
+                if (p != null) System.err.println("[PixelmonRaid] phaseThresholds needs exactly 3 values; using defaults.");
+                return fallback;
+            }
+            for (int i = 0; i < 3; i++) {
+                if (!(p[i] > 0.0 && p[i] < 1.0) || (i > 0 && p[i] <= p[i - 1])) {
+                    System.err.println("[PixelmonRaid] phaseThresholds must be ascending values in (0, 1); using defaults.");
+                    return fallback;
+                }
+            }
+            return Arrays.copyOf(p, 3);
+        }
+
+        private static double[] validEnrage(double[] m) {
+            double[] fallback = new double[]{1.25, 1.5, 2.0};
+            if (m == null || m.length != 3) {
+                if (m != null) System.err.println("[PixelmonRaid] enrageMultipliers needs exactly 3 values; using defaults.");
+                return fallback;
+            }
+            double[] out = new double[3];
+            for (int i = 0; i < 3; i++) out[i] = Math.max(0.1, Math.min(10.0, m[i]));
+            return out;
+        }
+
+        private ConfigData toData() {
+            ConfigData out = new ConfigData();
+            out.hpMultiplier = hpMultiplier;
+            out.poolMultiplier = poolMultiplier;
+            out.phaseThresholds = Arrays.copyOf(phaseThresholds, phaseThresholds.length);
+            out.enrageMultipliers = Arrays.copyOf(enrageMultipliers, enrageMultipliers.length);
+            out.sendThreshold = sendThreshold;
+            out.bossBarFlushIntervalTicks = bossBarFlushIntervalTicks;
+            out.tierA_cutoff = tierACutoff;
+            out.tierB_cutoff = tierBCutoff;
+            out.maxPlayersPerRaid = maxPlayersPerRaid;
+            out.defaultRaidDurationSeconds = defaultRaidDurationSeconds;
+            out.leaderboardSeason = leaderboardSeason;
+            out.rewardApplyBudgetMicros = rewardApplyBudgetMicros;
+            out.raidTaskBudgetMillis = raidTaskBudgetMillis;
+            out.admissionsPerTick = admissionsPerTick;
+            out.shardSize = shardSize;
+            out.shardTickBudgetMillis = shardTickBudgetMillis;
+            out.rewardParallelThreshold = rewardParallelThreshold;
+            out.vanillaBossBar = vanillaBossBar;
+            return out;
+        }
+
+        public double getHpMultiplier() { return hpMultiplier; }
+        public double getPoolMultiplier() { return poolMultiplier; }
+        /** Phase threshold 0..2 (fraction of the pool dealt to enter phase i + 1). */
+        public double getPhaseThreshold(int i) { return phaseThresholds[i]; }
+        public double[] getPhaseThresholds() { return Arrays.copyOf(phaseThresholds, phaseThresholds.length); }
+        /** Boss damage multiplier (on top of difficulty) for phase 1..3; phase 0 has none. */
+        public double getEnrageMultiplier(int phase) { return phase <= 0 ? 1.0 : enrageMultipliers[Math.min(phase, 3) - 1]; }
+        public double getSendThreshold() { return sendThreshold; }
+        public int getBossBarFlushIntervalTicks() { return bossBarFlushIntervalTicks; }
+        public double getTierACutoff() { return tierACutoff; }
+        public double getTierBCutoff() { return tierBCutoff; }
+        public int getMaxPlayersPerRaid() { return maxPlayersPerRaid; }
+        public int getDefaultRaidDurationSeconds() { return defaultRaidDurationSeconds; }
+        public int getLeaderboardSeason() { return leaderboardSeason; }
+        public int getRewardApplyBudgetMicros() { return rewardApplyBudgetMicros; }
+        public int getRaidTaskBudgetMillis() { return raidTaskBudgetMillis; }
+        public int getAdmissionsPerTick() { return admissionsPerTick; }
+        public int getShardSize() { return shardSize; }
+        public int getShardTickBudgetMillis() { return shardTickBudgetMillis; }
+        public int getRewardParallelThreshold() { return rewardParallelThreshold; }
+        public boolean isVanillaBossBar() { return vanillaBossBar; }
     }
 
+    Path getFile() { return file; }
+
     public synchronized void save() {
         try {
             Path parent = file.getParent();
             if (parent != null && !Files.exists(parent)) Files.createDirectories(parent);
 
-            // copy config into DTO
-            ConfigData out = new ConfigData();
-            out.hpMultiplier = this.hpMultiplier;
-            out.poolMultiplier = this.poolMultiplier;
-            out.phaseThresholds = (this.phaseThresholds == null ? new double[]{0.25, 0.5, 0.75} : Arrays.copyOf(this.phaseThresholds, this.phaseThresholds.length));
-            out.sendThreshold = this.sendThreshold;
-            out.tierA_cutoff = this.tierA_cutoff;
-            out.tierB_cutoff = this.tierB_cutoff;
-            out.maxPlayersPerRaid = this.maxPlayersPerRaid;
-            out.defaultRaidDurationSeconds = this.defaultRaidDurationSeconds;
-
             Gson gson = new GsonBuilder().setPrettyPrinting().create();
-            String json = gson.toJson(out);
+            String json = gson.toJson(current.toData());
             Files.write(file, json.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
-    public final synchronized void load() {
+    /** Re-read the file and publish it as the new snapshot; returns false (keeping the old one) when it cannot be read. */
+    public final synchronized boolean load() {
         try {
             if (Files.exists(file)) {
                 Gson gson = new Gson();
                 String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
                 ConfigData loaded = gson.fromJson(content, ConfigData.class);
-                if (loaded != null) {
-                    this.hpMultiplier = loaded.hpMultiplier;
-                    this.poolMultiplier = loaded.poolMultiplier;
-                    if (loaded.phaseThresholds != null && loaded.phaseThresholds.length == 3)
-                        this.phaseThresholds = Arrays.copyOf(loaded.phaseThresholds, loaded.phaseThresholds.length);
-                    this.sendThreshold = loaded.sendThreshold;
-                    this.tierA_cutoff = loaded.tierA_cutoff;
-                    this.tierB_cutoff = loaded.tierB_cutoff;
-                    this.maxPlayersPerRaid = loaded.maxPlayersPerRaid;
-                    this.defaultRaidDurationSeconds = loaded.defaultRaidDurationSeconds;
-                }
+                if (loaded == null) return false;
+                current = new Snapshot(loaded);
             } else {
                 // file missing — write defaults
                 save();
             }
-        } catch (IOException e) {
-            e.printStackTrace();
+            return true;
+        } catch (IOException | RuntimeException e) {
+            // RuntimeException: malformed JSON (JsonSyntaxException)
+            System.err.println("[PixelmonRaid] Could not read " + FILENAME + ", keeping the previous settings: " + e);
+            return false;
         }
     }
 
-    // Utility getters (defensive)
-    public double getHpMultiplier() { return Math.max(0.0, hpMultiplier); }
-    public double getPoolMultiplier() { return Math.max(0.0, poolMultiplier); }
-    public double[] getPhaseThresholds() {
-        if (phaseThresholds == null || phaseThresholds.length != 3) return new double[]{0.25, 0.5, 0.75};
-        return Arrays.copyOf(phaseThresholds, phaseThresholds.length);
-    }
-    public double getSendThreshold() { return Math.max(0.0, sendThreshold); }
-    public double getTierACutoff() { return Math.max(0.0, Math.min(1.0, tierA_cutoff)); }
-    public double getTierBCutoff() { return Math.max(0.0, Math.min(1.0, tierB_cutoff)); }
-    public int getMaxPlayersPerRaid() { return Math.max(1, maxPlayersPerRaid); }
-    public int getDefaultRaidDurationSeconds() { return Math.max(10, defaultRaidDurationSeconds); }
+    // Getters over the current snapshot (one volatile read each)
+    public double getHpMultiplier() { return current.getHpMultiplier(); }
+    public double getPoolMultiplier() { return current.getPoolMultiplier(); }
+    public double[] getPhaseThresholds() { return current.getPhaseThresholds(); }
+    public double getEnrageMultiplier(int phase) { return current.getEnrageMultiplier(phase); }
+    public double getSendThreshold() { return current.getSendThreshold(); }
+    public int getBossBarFlushIntervalTicks() { return current.getBossBarFlushIntervalTicks(); }
+    public double getTierACutoff() { return current.getTierACutoff(); }
+    public double getTierBCutoff() { return current.getTierBCutoff(); }
+    public int getMaxPlayersPerRaid() { return current.getMaxPlayersPerRaid(); }
+    public int getDefaultRaidDurationSeconds() { return current.getDefaultRaidDurationSeconds(); }
+    public int getLeaderboardSeason() { return current.getLeaderboardSeason(); }
+    public int getRewardApplyBudgetMicros() { return current.getRewardApplyBudgetMicros(); }
+    public int getRaidTaskBudgetMillis() { return current.getRaidTaskBudgetMillis(); }
+    public int getAdmissionsPerTick() { return current.getAdmissionsPerTick(); }
+    public int getShardSize() { return current.getShardSize(); }
+    public int getShardTickBudgetMillis() { return current.getShardTickBudgetMillis(); }
+    public int getRewardParallelThreshold() { return current.getRewardParallelThreshold(); }
+    public boolean isVanillaBossBar() { return current.isVanillaBossBar(); }
 }
@@ -41,14 +41,17 @@ public class PixelmonRaidMod {
         MinecraftForge.EVENT_BUS.register(new RaidBossTickHandler());
         MinecraftForge.EVENT_BUS.register(new RaidBattleHandler());
         MinecraftForge.EVENT_BUS.register(new RaidBossDeathHandler());
+        MinecraftForge.EVENT_BUS.register(new RaidParticipantCache());
 
         // -------------------------
         // Pixelmon event bus registrations (best-effort)
         // -------------------------
         try {
             com.pixelmonmod.pixelmon.Pixelmon.EVENT_BUS.register(new RaidDamageHandler());
+            com.pixelmonmod.pixelmon.Pixelmon.EVENT_BUS.register(new RaidBossDamageHandler()); // phase enrage multiplier
             com.pixelmonmod.pixelmon.Pixelmon.EVENT_BUS.register(new RaidInvincibilityHandler());
             com.pixelmonmod.pixelmon.Pixelmon.EVENT_BUS.register(new RaidBossRestrictionsHandler());
+            com.pixelmonmod.pixelmon.Pixelmon.EVENT_BUS.register(new RaidParticipantCache());
         } catch (Throwable ignored) {
             System.err.println("[PixelmonRaid] Pixelmon event registration failed (Pixelmon not present?).");
         }
@@ -59,6 +62,12 @@ public class PixelmonRaidMod {
             // Ensure config file exists (safe)
             try { PixelmonRaidConfig.getInstance(); } catch (Throwable e) { e.printStackTrace(); }
 
+            // Typed boss state attached to Pixelmon entities
+            try { RaidBossCapability.register(); } catch (Throwable t) { t.printStackTrace(); }
+
+            // Resolve the Pixelmon battle API once so battle start/end never re-probes it
+            try { PixelmonBattleBridge.init(); } catch (Throwable t) { t.printStackTrace(); }
+
             // Register network packets (guarded)
             try {
                 PacketHandler.registerPackets();
@@ -76,7 +85,13 @@ public class PixelmonRaidMod {
     @SubscribeEvent
     public void onWorldTick(TickEvent.WorldTickEvent evt) {
         if (evt.phase == TickEvent.Phase.END && evt.world instanceof ServerWorld) {
-            RaidSession.getSession((ServerWorld) evt.world).tick(evt.world.getGameTime());
+            ServerWorld world = (ServerWorld) evt.world;
+            RaidSessionRegistry.getDefault(world); // default arena keeps the auto-raid cycle running
+            java.util.List<RaidSession> sessions = RaidSessionRegistry.sessions(world);
+            // backwards: a completed ad-hoc session removes itself from this list while ticking
+            for (int i = sessions.size() - 1; i >= 0; i--) {
+                try { sessions.get(i).tick(world.getGameTime()); } catch (Throwable t) { t.printStackTrace(); }
+            }
         }
     }
 
@@ -5,11 +5,9 @@ import com.pixelmonmod.pixelmon.api.events.battles.BattleEndEvent;
 import com.pixelmonmod.pixelmon.battles.controller.BattleController;
 import com.pixelmonmod.pixelmon.battles.controller.participants.BattleParticipant;
 import com.pixelmonmod.pixelmon.api.pokemon.Pokemon;
-import net.minecraft.entity.Entity;
 import com.pixelmonmod.pixelmon.battles.controller.participants.PlayerParticipant;
 import com.pixelmonmod.pixelmon.entities.pixelmon.PixelmonEntity;
 import net.minecraft.entity.player.ServerPlayerEntity;
-import net.minecraft.world.server.ServerWorld;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 
 public class RaidBattleHandler {
@@ -29,8 +27,7 @@ public class RaidBattleHandler {
         }
 
         if (boss != null) {
-            ServerWorld world = (ServerWorld) boss.getCommandSenderWorld();
-            RaidSession session = RaidSpawner.getSession(world);
+            RaidSession session = RaidSessionRegistry.forBoss(boss);
         }
     }
 
@@ -39,16 +36,15 @@ public class RaidBattleHandler {
         com.pixelmonmod.pixelmon.battles.controller.BattleController controller = event.getBattleController();
         if (controller.participants == null || controller.participants.isEmpty()) return;
 
-        boolean bossDied = controller.participants.stream()
+        PixelmonEntity deadBoss = controller.participants.stream()
                 .filter(p -> p.getEntity() instanceof PixelmonEntity)
                 .map(p -> (PixelmonEntity) p.getEntity())
-                .anyMatch(e -> RaidSpawner.isRaidBoss(e) && e.getHealth() <= 0);
+                .filter(e -> RaidBossRegistry.isRaidBoss(e) && e.getHealth() <= 0)
+                .findFirst().orElse(null);
 
-        if (bossDied) {
-            Entity participantEntity = controller.participants.get(0).getEntity();
-            if (participantEntity == null) return;
-            ServerWorld world = (ServerWorld) participantEntity.getCommandSenderWorld();
-            RaidSession session = RaidSpawner.getSession(world);
+        if (deadBoss != null) {
+            RaidSession session = RaidSessionRegistry.forBoss(deadBoss);
+            if (session == null) return;
             RaidRewardHandler.distributeRewards(session);
             session.setState(RaidSession.State.COMPLETED);
         }
@@ -0,0 +1,78 @@
+package com.example.PixelmonRaid;
+
+import com.pixelmonmod.pixelmon.entities.pixelmon.PixelmonEntity;
+import net.minecraft.entity.Entity;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.INBT;
+import net.minecraft.util.Direction;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.common.capabilities.CapabilityInject;
+import net.minecraftforge.common.capabilities.CapabilityManager;
+import net.minecraftforge.common.capabilities.ICapabilitySerializable;
+import net.minecraftforge.common.util.LazyOptional;
+import net.minecraftforge.event.AttachCapabilitiesEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * Forge capability that attaches a RaidBossState to every PixelmonEntity.
+ * Replaces the per-hit CompoundNBT read-modify-write of the pool/damage/phase keys;
+ * the state is written to NBT only when the entity itself is saved.
+ */
+@Mod.EventBusSubscriber(modid = PixelmonRaidMod.MODID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class RaidBossCapability {
+    private RaidBossCapability() {}
+
+    @CapabilityInject(RaidBossState.class)
+    public static Capability<RaidBossState> RAID_BOSS_STATE = null;
+
+    private static final ResourceLocation KEY = new ResourceLocation(PixelmonRaidMod.MODID, "raid_boss_state");
+
+    /** Register the capability type. Call from FMLCommonSetupEvent. */
+    public static void register() {
+        CapabilityManager.INSTANCE.register(RaidBossState.class, new Capability.IStorage<RaidBossState>() {
+            @Override
+            public INBT writeNBT(Capability<RaidBossState> capability, RaidBossState instance, Direction side) {
+                return instance.serializeNBT();
+            }
+
+            @Override
+            public void readNBT(Capability<RaidBossState> capability, RaidBossState instance, Direction side, INBT nbt) {
+                if (nbt instanceof CompoundNBT) instance.deserializeNBT((CompoundNBT) nbt);
+            }
+        }, RaidBossState::new);
+    }
+
+    @SubscribeEvent
+    public static void onAttachEntity(AttachCapabilitiesEvent<Entity> evt) {
+        if (!(evt.getObject() instanceof PixelmonEntity)) return;
+        evt.addCapability(KEY, new Provider());
+    }
+
+    /** The boss state for the entity, or null when the capability is not attached. */
+    public static RaidBossState get(Entity entity) {
+        if (entity == null || RAID_BOSS_STATE == null) return null;
+        return entity.getCapability(RAID_BOSS_STATE).orElse(null);
+    }
+
+    private static final class Provider implements ICapabilitySerializable<CompoundNBT> {
+        private final RaidBossState state = new RaidBossState();
+        private final LazyOptional<RaidBossState> holder = LazyOptional.of(() -> state);
+
+        @Override
+        public <T> LazyOptional<T> getCapability(Capability<T> cap, Direction side) {
+            return cap == RAID_BOSS_STATE ? holder.cast() : LazyOptional.empty();
+        }
+
+        @Override
+        public CompoundNBT serializeNBT() {
+            return state.serializeNBT();
+        }
+
+        @Override
+        public void deserializeNBT(CompoundNBT nbt) {
+            state.deserializeNBT(nbt);
+        }
+    }
+}
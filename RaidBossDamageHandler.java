@@ -5,7 +5,7 @@ import com.pixelmonmod.pixelmon.entities.pixelmon.PixelmonEntity;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 
 /**
- * Scales damage dealt by raid bosses according to RaidState.getBossDamageMultiplier().
+ * Scales damage dealt by raid bosses according to their session's boss damage multiplier.
  * This creates the "enrage" feeling where boss deals more damage in later phases.
  */
 public class RaidBossDamageHandler {
@@ -16,8 +16,9 @@ public class RaidBossDamageHandler {
         if (!(event.user.entity instanceof PixelmonEntity)) return;
         PixelmonEntity attacker = (PixelmonEntity) event.user.entity;
         try {
-            if (!RaidSpawner.isRaidBoss(attacker)) return;
-            float m = RaidState.getBossDamageMultiplier();
+            if (!RaidBossRegistry.isRaidBoss(attacker)) return;
+            RaidSession session = RaidSessionRegistry.forBoss(attacker);
+            float m = session != null ? session.getBossDamageMultiplier() : 1.0f;
             if (m <= 0f) m = 1.0f;
             event.damage = event.damage * m;
         } catch (Throwable ignored) {}
@@ -1,15 +1,12 @@
 package com.example.PixelmonRaid;
 
 import com.pixelmonmod.pixelmon.entities.pixelmon.PixelmonEntity;
-import com.pixelmonmod.pixelmon.battles.BattleRegistry;
-import com.pixelmonmod.pixelmon.battles.controller.BattleController;
-import net.minecraft.entity.player.ServerPlayerEntity;
 import net.minecraft.world.server.ServerWorld;
 import net.minecraftforge.event.entity.living.LivingDeathEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 
-import java.util.UUID;
+import java.util.ArrayList;
 
 /**
  * Ends the raid for ALL joined players immediately when the raid boss dies,
@@ -24,32 +21,25 @@ public class RaidBossDeathHandler {
         if (!(evt.getEntity() instanceof PixelmonEntity)) return;
 
         PixelmonEntity dead = (PixelmonEntity) evt.getEntity();
-        if (!RaidSpawner.isRaidBoss(dead)) return;
+        if (!RaidBossRegistry.isRaidBoss(dead)) return;
 
         if (!(dead.level instanceof ServerWorld)) return;
         ServerWorld world = (ServerWorld) dead.level;
 
-        // Get the session for this world
-        RaidSession session = RaidSpawner.getSession(world);
+        // Get the session owning this boss
+        RaidSession session = RaidSessionRegistry.forBoss(dead);
         if (session == null) return;
 
-        // End ALL players' battles in this session (if any still active)
-        for (UUID pid : session.getPlayers()) {
-            try {
-                ServerPlayerEntity pl = world.getServer().getPlayerList().getPlayer(pid);
-                if (pl == null) continue;
-                BattleController bc = BattleRegistry.getBattle(pl);
-                if (bc != null) bc.endBattle();
-            } catch (Throwable t) {
-                t.printStackTrace();
-            }
-        }
+        // End ALL players' battles in this session (if any still active); one scheduler task per player
+        session.scheduleEndBattles(new ArrayList<>(session.getPlayers()));
 
         // Despawn any other tracked bosses
         try {
             RaidSpawner.despawnBosses(session);
         } catch (Throwable ignored) {}
 
+        session.recordLifetimeResults(true);
+
         // Distribute rewards + broadcast leaderboard (only once)
         try {
             if (session.markRewardsDistributedIfNot()) {
@@ -0,0 +1,135 @@
+package com.example.PixelmonRaid;
+
+import com.pixelmonmod.pixelmon.entities.pixelmon.PixelmonEntity;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.entity.Entity;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.world.World;
+import net.minecraftforge.event.entity.EntityJoinWorldEvent;
+import net.minecraftforge.event.entity.EntityLeaveWorldEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Live index of loaded raid boss entities, keyed by UUID and by entity id.
+ * Also the single source of truth for "is this a raid boss": a primitive int lookup on the
+ * entity id, with no NBT access and no species comparison.
+ *
+ * Kept in sync from EntityJoinWorldEvent / EntityLeaveWorldEvent so callers get the live
+ * PixelmonEntity in O(1) instead of scanning world.getEntities(). Entries are dropped as soon
+ * as the entity unloads, so a miss means "not loaded right now", not "never spawned".
+ *
+ * Server thread only.
+ */
+@Mod.EventBusSubscriber(modid = PixelmonRaidMod.MODID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class RaidBossRegistry {
+    private RaidBossRegistry() {}
+
+    private static final Map<UUID, PixelmonEntity> BY_UUID = new HashMap<>();
+    private static final Int2ObjectOpenHashMap<PixelmonEntity> BY_ID = new Int2ObjectOpenHashMap<>();
+    // per-world loaded bosses, iterated by index from the world tick (no iterator allocation)
+    private static final Map<World, ArrayList<PixelmonEntity>> BY_WORLD = new HashMap<>();
+
+    @SubscribeEvent
+    public static void onEntityJoin(EntityJoinWorldEvent evt) {
+        if (evt == null || evt.getWorld() == null || evt.getWorld().isClientSide()) return;
+        if (!(evt.getEntity() instanceof PixelmonEntity)) return;
+        PixelmonEntity pe = (PixelmonEntity) evt.getEntity();
+        try {
+            RaidBossState state = RaidBossCapability.get(pe);
+            if (state == null) return;
+            if (!state.isBoss()) migrateLegacyTags(pe, state);
+            if (state.isBoss()) {
+                register(pe);
+                RaidSessionRegistry.adoptIfOrphan(pe);
+            }
+        } catch (Throwable ignored) {}
+    }
+
+    /** Bosses saved before the capability existed carry their pool in persistent NBT; move it over once. */
+    private static void migrateLegacyTags(PixelmonEntity pe, RaidBossState state) {
+        CompoundNBT tag = pe.getPersistentData();
+        if (!tag.getBoolean("pixelmonraid_boss")) return;
+        // the legacy tags never recorded whether victory fired, so the pool comes back uncrossed
+        state.restore(tag.getInt("pixelmonraid_hp_pool"), tag.getInt("pixelmonraid_accumulated_damage"), false);
+        state.setPhase(tag.getInt("pixelmonraid_phase"));
+        tag.remove("pixelmonraid_boss");
+        tag.remove("pixelmonraid_hp_pool");
+        tag.remove("pixelmonraid_accumulated_damage");
+        tag.remove("pixelmonraid_phase");
+    }
+
+    @SubscribeEvent
+    public static void onEntityLeave(EntityLeaveWorldEvent evt) {
+        if (evt == null || evt.getWorld() == null || evt.getWorld().isClientSide()) return;
+        if (!(evt.getEntity() instanceof PixelmonEntity)) return;
+        unregister(evt.getEntity());
+    }
+
+    /** Track a boss entity. Called on spawn and whenever a tagged boss (re)joins a world. */
+    public static void register(PixelmonEntity boss) {
+        if (boss == null) return;
+        BY_UUID.put(boss.getUUID(), boss);
+        if (BY_ID.put(boss.getId(), boss) == null && boss.level != null) {
+            BY_WORLD.computeIfAbsent(boss.level, w -> new ArrayList<>()).add(boss);
+        }
+    }
+
+    public static void unregister(Entity entity) {
+        if (entity == null) return;
+        PixelmonEntity removed = BY_ID.remove(entity.getId());
+        if (removed == null) return;
+        BY_UUID.remove(removed.getUUID());
+        ArrayList<PixelmonEntity> list = BY_WORLD.get(removed.level);
+        if (list != null) {
+            list.remove(removed);
+            if (list.isEmpty()) BY_WORLD.remove(removed.level);
+        }
+    }
+
+    /** True when the entity is a loaded raid boss. */
+    public static boolean isRaidBoss(Entity entity) {
+        return entity != null && BY_ID.containsKey(entity.getId());
+    }
+
+    /** True when the entity id belongs to a loaded raid boss. */
+    public static boolean isRaidBoss(int entityId) {
+        return BY_ID.containsKey(entityId);
+    }
+
+    /** The loaded boss with this UUID, or null. */
+    public static PixelmonEntity get(UUID id) {
+        return id == null ? null : BY_UUID.get(id);
+    }
+
+    /** The loaded boss with this entity id, or null. */
+    public static PixelmonEntity get(int entityId) {
+        return BY_ID.get(entityId);
+    }
+
+    /**
+     * Loaded bosses in the given world. Returns the live backing list (do not modify) or an
+     * empty list, so a world without a raid costs a single map lookup.
+     */
+    public static List<PixelmonEntity> loadedBosses(World world) {
+        List<PixelmonEntity> list = BY_WORLD.get(world);
+        return list != null ? list : Collections.<PixelmonEntity>emptyList();
+    }
+
+    /** The first loaded boss belonging to the session, or null when none of its bosses are loaded. */
+    public static PixelmonEntity findBoss(RaidSession session) {
+        if (session == null) return null;
+        for (UUID id : session.getBossEntityUUIDs()) {
+            PixelmonEntity pe = BY_UUID.get(id);
+            if (pe != null && pe.isAlive()) return pe;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.PixelmonRaid;
+
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraftforge.common.util.INBTSerializable;
+
+/**
+ * Typed raid state carried by a boss entity (attached as a capability, see RaidBossCapability).
+ * Held as plain fields and only turned into NBT when the entity is saved.
+ * The HP pool is a SharedHpPool, so hits arriving from several battles at once are all counted and
+ * the pool reports crossing zero exactly once.
+ * Phase thresholds are held as absolute damage cut-offs (see setPhaseThresholds), so checking a hit for a
+ * phase change is one compare against the next cut-off.
+ */
+public class RaidBossState implements INBTSerializable<CompoundNBT> {
+
+    private boolean boss;
+    private int hpPool = 1;
+    private volatile SharedHpPool pool = new SharedHpPool(1);
+    private volatile int phase;
+    private long[] phaseCutoffs = new long[0];
+    private volatile long nextCutoff = Long.MAX_VALUE;
+
+    public boolean isBoss() {
+        return boss;
+    }
+
+    /** Mark this entity as a raid boss with a fresh pool. */
+    public synchronized void init(int pool) {
+        this.boss = true;
+        this.hpPool = Math.max(1, pool);
+        this.pool = new SharedHpPool(this.hpPool);
+        this.phase = 0;
+        this.phaseCutoffs = new long[0];
+        this.nextCutoff = Long.MAX_VALUE;
+    }
+
+    /**
+     * Mark this entity as a raid boss with a pool loaded from a save (NBT or legacy tags). The damage is restored,
+     * not re-added, so loading never counts as a hit and never claims the zero crossing (see SharedHpPool.restore).
+     */
+    public synchronized void restore(int pool, long dealt, boolean depleted) {
+        init(pool);
+        this.pool = SharedHpPool.restore(this.hpPool, Math.max(0L, dealt), depleted);
+    }
+
+    /**
+     * Turn phase thresholds (fractions of the pool dealt, ascending) into absolute damage cut-offs.
+     * Done once when the boss spawns so the per-hit check needs no float maths.
+     */
+    public synchronized void setPhaseThresholds(double[] thresholds) {
+        long[] cutoffs = new long[thresholds == null ? 0 : thresholds.length];
+        for (int i = 0; i < cutoffs.length; i++) {
+            cutoffs[i] = Math.max(1L, Math.min(hpPool, (long) Math.ceil(hpPool * thresholds[i])));
+        }
+        phaseCutoffs = cutoffs;
+        nextCutoff = phase < cutoffs.length ? cutoffs[phase] : Long.MAX_VALUE;
+    }
+
+    public synchronized long[] getPhaseCutoffs() {
+        return phaseCutoffs.clone();
+    }
+
+    /**
+     * Enter the next phase when the pool total has reached its cut-off. Returns the phase entered, or -1.
+     * One phase per call, and each phase is handed to exactly one caller; loop to catch up after a big hit.
+     */
+    public int advancePhase(long dealt) {
+        if (dealt < nextCutoff) return -1;
+        synchronized (this) {
+            if (phase >= phaseCutoffs.length || dealt < phaseCutoffs[phase]) return -1;
+            int entered = ++phase;
+            nextCutoff = entered < phaseCutoffs.length ? phaseCutoffs[entered] : Long.MAX_VALUE;
+            return entered;
+        }
+    }
+
+    public int getHpPool() {
+        return hpPool;
+    }
+
+    /** Damage dealt so far; cheap, may miss hits landing right now (display only). */
+    public long getAccumulatedDamage() {
+        return pool.approximateDealt();
+    }
+
+    /** Final damage total: seals the pool and waits for in-flight hits. */
+    public long getFinalDamage() {
+        return pool.exactDealt();
+    }
+
+    /**
+     * Add damage to the pool. Returns true for exactly one hit, the one that emptied the pool;
+     * the caller finishes the raid on true.
+     */
+    public boolean addDamage(int amount) {
+        return pool.add(amount);
+    }
+
+    public boolean isDepleted() {
+        return pool.isCrossed();
+    }
+
+    /** True once the raid is over for this pool (victory, or getFinalDamage was read); hits are refused. */
+    public boolean isSealed() {
+        return pool.isSealed();
+    }
+
+    /** Remaining pool as 0..1. */
+    public float getPercentLeft() {
+        return pool.percentLeft();
+    }
+
+    public int getPhase() {
+        return phase;
+    }
+
+    public synchronized void setPhase(int phase) {
+        this.phase = Math.max(0, phase);
+        nextCutoff = this.phase < phaseCutoffs.length ? phaseCutoffs[this.phase] : Long.MAX_VALUE;
+    }
+
+    @Override
+    public CompoundNBT serializeNBT() {
+        CompoundNBT tag = new CompoundNBT();
+        if (!boss) return tag;
+        tag.putBoolean("Boss", true);
+        tag.putInt("HpPool", hpPool);
+        tag.putLong("AccumulatedDamage", pool.approximateDealt());
+        tag.putBoolean("Depleted", pool.isCrossed());
+        tag.putInt("Phase", phase);
+        tag.putLongArray("PhaseCutoffs", getPhaseCutoffs());
+        return tag;
+    }
+
+    @Override
+    public void deserializeNBT(CompoundNBT nbt) {
+        if (nbt == null || !nbt.getBoolean("Boss")) {
+            boss = false;
+            return;
+        }
+        restore(nbt.getInt("HpPool"), nbt.getLong("AccumulatedDamage"), nbt.getBoolean("Depleted"));
+        synchronized (this) {
+            phaseCutoffs = nbt.getLongArray("PhaseCutoffs");
+        }
+        setPhase(nbt.getInt("Phase"));
+    }
+
+    @Override
+    public String toString() {
+        return "RaidBossState{" +
+                "boss=" + boss +
+                ", hpPool=" + hpPool +
+                ", accumulatedDamage=" + pool.approximateDealt() +
+                ", phase=" + phase +
+                '}';
+    }
+}
@@ -1,19 +1,19 @@
 package com.example.PixelmonRaid;
 
 import com.pixelmonmod.pixelmon.entities.pixelmon.PixelmonEntity;
-import net.minecraft.entity.Entity;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.vector.Vector3d;
 import net.minecraft.world.server.ServerWorld;
 import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Ensure raid bosses do not move and stay at spawn center.
- * Runs every world tick and force-applies NoAI + zero motion + position lock.
+ * Runs every world tick over the bosses tracked by RaidBossRegistry only (no entity scan):
+ * worlds without a loaded boss return after one map lookup, and the loop itself allocates nothing.
  */
 @Mod.EventBusSubscriber
 public class RaidBossTickHandler {
@@ -24,80 +24,30 @@ public class RaidBossTickHandler {
         if (!(event.world instanceof ServerWorld)) return;
 
         ServerWorld world = (ServerWorld) event.world;
+        List<PixelmonEntity> bosses = RaidBossRegistry.loadedBosses(world);
+        if (bosses.isEmpty()) return;
 
-        // Collect entities to avoid concurrent modification
-        List<Entity> entities = world.getEntities().collect(Collectors.toList());
-        for (Entity e : entities) {
-            if (!(e instanceof PixelmonEntity)) continue;
-            PixelmonEntity pe = (PixelmonEntity) e;
+        for (int i = 0; i < bosses.size(); i++) {
+            PixelmonEntity pe = bosses.get(i);
             try {
-                if (!RaidSpawner.isRaidBoss(pe)) continue;
-
-                // 1) enforce NoAI (reflection with fallback NBT)
-                boolean applied = false;
-                try {
-                    java.lang.reflect.Method m = pe.getClass().getMethod("setNoAI", boolean.class);
-                    m.invoke(pe, true);
-                    applied = true;
-                } catch (NoSuchMethodException nsme) {
-                    try {
-                        java.lang.reflect.Method m2 = net.minecraft.entity.Entity.class.getMethod("setNoAI", boolean.class);
-                        m2.invoke(pe, true);
-                        applied = true;
-                    } catch (Throwable ignored) {}
-                } catch (Throwable ignored) {}
-
-                if (!applied) {
-                    try { pe.getPersistentData().putBoolean("NoAI", true); } catch (Throwable ignored) {}
-                }
-
-                // 2) zero motion
-                try {
-                    pe.setDeltaMovement(0.0, 0.0, 0.0);
-                    pe.setDeltaMovement(pe.getDeltaMovement()); // ensure update
-                } catch (Throwable t) {
-                    // fallback: set motion fields reflectively
-                    try {
-                        java.lang.reflect.Field motionX = net.minecraft.entity.Entity.class.getDeclaredField("motionX");
-                        java.lang.reflect.Field motionY = net.minecraft.entity.Entity.class.getDeclaredField("motionY");
-                        java.lang.reflect.Field motionZ = net.minecraft.entity.Entity.class.getDeclaredField("motionZ");
-                        motionX.setAccessible(true); motionY.setAccessible(true); motionZ.setAccessible(true);
-                        motionX.setDouble(pe, 0.0);
-                        motionY.setDouble(pe, 0.0);
-                        motionZ.setDouble(pe, 0.0);
-                    } catch (Throwable ignored) {}
-                }
-
-                // 3) lock position to session center (use reflection teleport if available for better client sync)
-                try {
-                    RaidSession session = RaidSpawner.getSession(world);
-                    BlockPos center = session.getCenter();
-                    if (center != null) {
-                        double tx = center.getX() + 0.5;
-                        double ty = center.getY();
-                        double tz = center.getZ() + 0.5;
-
-                        boolean teleported = false;
-                        try {
-                            java.lang.reflect.Method tele = pe.getClass().getMethod("teleportTo", double.class, double.class, double.class);
-                            tele.invoke(pe, tx, ty, tz);
-                            teleported = true;
-                        } catch (NoSuchMethodException ns) {
-                            try {
-                                java.lang.reflect.Method abs = pe.getClass().getMethod("absMoveTo", double.class, double.class, double.class);
-                                abs.invoke(pe, tx, ty, tz);
-                                teleported = true;
-                            } catch (NoSuchMethodException ns2) {
-                                // fall back
-                            } catch (Throwable ignored) {}
-                        } catch (Throwable ignored) {}
-
-                        if (!teleported) {
-                            try { pe.setPos(tx, ty, tz); } catch (Throwable ignored) {}
-                        }
+                RaidSession session = RaidSessionRegistry.forBoss(pe);
+                BlockPos center = session != null ? session.getCenter() : null;
+
+                // 1) enforce NoAI (only write when it actually changed)
+                if (!pe.isNoAi()) pe.setNoAi(true);
+
+                // 2) zero motion (shared constant, no Vector3d allocation)
+                pe.setDeltaMovement(Vector3d.ZERO);
+
+                // 3) lock position to its own session's center; teleport only when the boss drifted
+                if (center != null) {
+                    double tx = center.getX() + 0.5;
+                    double ty = center.getY();
+                    double tz = center.getZ() + 0.5;
+                    if (pe.getX() != tx || pe.getY() != ty || pe.getZ() != tz) {
+                        pe.teleportTo(tx, ty, tz);
                     }
-                } catch (Throwable ignored) {}
-
+                }
             } catch (Throwable ignored) {}
         }
     }
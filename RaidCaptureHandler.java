@@ -72,30 +72,8 @@ public final class RaidCaptureHandler {
 
             if (serverWorld == null) return; // can't proceed
 
-            // Check if hitEntity is a Pixelmon raid boss
-            boolean isRaidBoss = false;
-            Object pixelmonEntity = null;
-            try {
-                Class<?> pixClass = Class.forName("com.pixelmonmod.pixelmon.entities.pixelmon.PixelmonEntity");
-                if (pixClass.isInstance(hitEntity)) {
-                    pixelmonEntity = hitEntity;
-                    // call RaidSpawner.isRaidBoss(PixelmonEntity) if exists
-                    try {
-                        Method isRaid = RaidSpawner.class.getMethod("isRaidBoss", pixClass);
-                        Object res = isRaid.invoke(null, pixelmonEntity);
-                        if (res instanceof Boolean && ((Boolean) res)) isRaidBoss = true;
-                    } catch (NoSuchMethodException nsme) {
-                        // try isRaidBoss(Object)
-                        try {
-                            Method isRaidAny = RaidSpawner.class.getMethod("isRaidBoss", Object.class);
-                            Object res = isRaidAny.invoke(null, pixelmonEntity);
-                            if (res instanceof Boolean && ((Boolean) res)) isRaidBoss = true;
-                        } catch (Throwable ignored) {}
-                    } catch (Throwable ignored) {}
-                }
-            } catch (ClassNotFoundException cnf) {
-                // Pixelmon not present on compile classpath -> nothing to do
-            } catch (Throwable ignored) {}
+            // Check if hitEntity is a Pixelmon raid boss (primitive id lookup)
+            boolean isRaidBoss = RaidBossRegistry.isRaidBoss(hitEntity);
 
             if (!isRaidBoss) return;
 
@@ -152,24 +130,27 @@ public final class RaidCaptureHandler {
             // If a throwing player was found, add them to the session and (if IN_BATTLE) attempt start for that player
             if (throwingPlayer != null) {
                 try {
-                    RaidSession session = RaidSpawner.getSession(serverWorld);
+                    RaidSession session = RaidSessionRegistry.forBoss(hitEntity);
                     if (session != null) {
                         UUID pid = throwingPlayer.getUUID();
+                        String refusal = session.getPlayers().contains(pid) ? null : RaidParticipantCache.prepare(throwingPlayer);
+                        if (refusal != null) {
+                            throwingPlayer.sendMessage(new StringTextComponent(refusal), pid);
+                            return;
+                        }
                         boolean added = session.addPlayer(pid);
                         throwingPlayer.sendMessage(new StringTextComponent("You joined the raid!"), throwingPlayer.getUUID());
                         System.out.println("[PixelmonRaid] Projectile hit raid boss -> projectile=" +
                                 safeRegistryName(projectile) + " hit=" + safeRegistryName(hitEntity) +
                                 " owner=" + throwingPlayer.getName().getString() + " added=" + added);
 
-                        // If session already IN_BATTLE, try per-player start (best-effort)
+                        // If session already IN_BATTLE, queue this player's own battle join (best-effort)
                         try {
                             if (session.getState() == RaidSession.State.IN_BATTLE) {
-                                boolean started = RaidBattleStarter.startBattleForPlayer(session, serverWorld, throwingPlayer);
-                                // don't spam player; only send on failure/success optionally
-                                if (started) {
-                                    throwingPlayer.sendMessage(new StringTextComponent("You have joined the ongoing raid battle."), throwingPlayer.getUUID());
-                                } else {
-                                    // best-effort: no action
+                                boolean queued = RaidBattleStarter.startBattleForPlayer(session, serverWorld, throwingPlayer);
+                                // don't spam player; only tell them when a join was actually queued
+                                if (queued) {
+                                    throwingPlayer.sendMessage(new StringTextComponent("Joining the ongoing raid battle..."), throwingPlayer.getUUID());
                                 }
                             }
                         } catch (Throwable sb) {
@@ -5,15 +5,13 @@ import com.pixelmonmod.pixelmon.battles.controller.participants.PixelmonWrapper;
 import com.pixelmonmod.pixelmon.entities.pixelmon.PixelmonEntity;
 import com.pixelmonmod.pixelmon.api.pokemon.Pokemon;
 import net.minecraft.entity.player.ServerPlayerEntity;
-import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.util.text.StringTextComponent;
-import net.minecraft.world.server.ServerWorld;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 
 /**
- * Records player damage dealt to raid bosses and updates the shared HP pool stored
- * in the boss entity's persistent data. Sends boss-bar updates to session players
- * when percent changes beyond the configured threshold and finishes the raid when
+ * Records player damage dealt to raid bosses and updates the shared HP pool held
+ * in the primary boss entity's RaidBossState capability (hits on a shard's boss land in the same pool). Hands the new percent to the session's
+ * BossBarBroadcaster (which coalesces packets per tick) and finishes the raid when
  * the pool is exhausted.
  */
 public class RaidDamageHandler {
@@ -31,65 +29,45 @@ public class RaidDamageHandler {
 
             PixelmonEntity targetEntity = targetWrapper.entity;
             if (targetEntity == null) return;
-            if (!RaidSpawner.isRaidBoss(targetEntity)) return;
+            if (!RaidBossRegistry.isRaidBoss(targetEntity)) return;
+            RaidBossState state = RaidBossCapability.get(targetEntity);
+            if (state == null || !state.isBoss()) return;
+            RaidSession session = RaidSessionRegistry.forBoss(targetEntity);
+            if (session == null) return;
 
-            // Scale damage by raid difficulty multiplier
+            // Scale damage by the session's raid difficulty multiplier
             float baseDamage = (float) event.damage;
-            float scaledDamage = baseDamage * RaidState.getDifficulty().getPlayerDamageMultiplier();
+            float scaledDamage = baseDamage * session.getDifficulty().getPlayerDamageMultiplier();
             int damageToRecord = Math.max(0, Math.round(scaledDamage));
 
+            // the raid's result is final once its pool is sealed (victory or finishRaid); late hits count nowhere
+            RaidBossState sessionPool = session.getBossPool();
+            if ((sessionPool != null ? sessionPool : state).isSealed()) return;
+
             // Record damage in tracker (per-player)
             try {
-                RaidState.getDamageTracker().recordDamage(player, damageToRecord);
+                session.getDamageTracker().recordDamage(player, damageToRecord);
             } catch (Throwable ignored) {}
-
-            // Update boss NBT pool: accumulate damage and compute percent left
             try {
-                CompoundNBT tag = targetEntity.getPersistentData();
-                if (tag == null) tag = new CompoundNBT();
-
-                int accumulated = tag.contains("pixelmonraid_accumulated_damage") ? tag.getInt("pixelmonraid_accumulated_damage") : 0;
-                int pool = tag.contains("pixelmonraid_hp_pool") ? Math.max(1, tag.getInt("pixelmonraid_hp_pool")) : 1;
+                session.getLeaderboard().recordDamage(player.getUUID(), damageToRecord);
+            } catch (Throwable ignored) {}
 
-                accumulated += damageToRecord;
-                tag.putInt("pixelmonraid_accumulated_damage", accumulated);
+            // Update the boss pool held in the typed capability: accumulate damage and compute percent left
+            try {
+                RaidBossState pool = sessionPool != null ? sessionPool : state;
+                boolean emptied = pool.addDamage(damageToRecord);
+                long dealt = pool.getAccumulatedDamage();
 
-                float percentLeft = Math.max(0f, 1f - (accumulated / (float) pool));
-                // Update RaidState so client overlay (if present) can use it
-                try { RaidState.setBossPercent(percentLeft); } catch (Throwable ignored) {}
+                // Phase change check: one compare against the next integer cut-off
+                RaidPhaseEngine.onDamage(session, pool, dealt);
 
-                // Send boss-bar update to session players only if change > threshold
-                try {
-                    ServerWorld sw = (ServerWorld) targetEntity.getCommandSenderWorld();
-                    if (sw != null && sw.getServer() != null) {
-                        RaidSession session = RaidSpawner.getSession(sw);
-                        if (session != null) {
-                            float last = session.getLastBossPercent();
-                            double sendThreshold = PixelmonRaidConfig.getInstance().getSendThreshold();
-                            if (last < 0 || Math.abs(last - percentLeft) > sendThreshold) {
-                                session.setLastBossPercent(percentLeft);
-                                // send to each session player (defensive)
-                                for (java.util.UUID puid : session.getPlayers()) {
-                                    try {
-                                        ServerPlayerEntity p = sw.getServer().getPlayerList().getPlayer(puid);
-                                        if (p != null) PacketHandler.sendBossBarToPlayer(p, percentLeft, "Raid Boss");
-                                    } catch (Throwable ignored) {}
-                                }
-                            }
-                        }
-                    }
-                } catch (Throwable ignored) {}
+                // Record the total for the session's boss bar; percent and packets are worked out once per tick at END of WorldTickEvent
+                try { session.getBossBar().update(dealt, pool.getHpPool()); } catch (Throwable ignored) {}
 
-                // If the accumulated damage meets/exceeds the pool, mark raid as victory
-                if (accumulated >= pool) {
+                // Only the hit that emptied the pool finishes the raid; later hits see false
+                if (emptied) {
                     try {
-                        ServerWorld sw = (ServerWorld) targetEntity.getCommandSenderWorld();
-                        if (sw != null) {
-                            RaidSession session = RaidSpawner.getSession(sw);
-                            if (session != null) {
-                                session.finishRaid(true);
-                            }
-                        }
+                        session.finishRaid(true);
                     } catch (Throwable t) {
                         t.printStackTrace();
                     }
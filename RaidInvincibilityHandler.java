@@ -16,7 +16,7 @@ public class RaidInvincibilityHandler {
         if (!(event.target.entity instanceof PixelmonEntity)) return;
 
         PixelmonEntity targetEntity = (PixelmonEntity) event.target.entity;
-        if (!RaidSpawner.isRaidBoss(targetEntity)) return;
+        if (!RaidBossRegistry.isRaidBoss(targetEntity)) return;
 
         try {
             if (targetEntity.getPokemon() != null) {
@@ -38,7 +38,7 @@ public class RaidInvincibilityHandler {
 
         PixelmonEntity pe = (PixelmonEntity) evt.getEntity();
         try {
-            if (RaidSpawner.isRaidBoss(pe)) {
+            if (RaidBossRegistry.isRaidBoss(pe)) {
                 // Prevent the vanilla death and ensure Pokemon HP remains at least 1
                 evt.setCanceled(true);
                 try {
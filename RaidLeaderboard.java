@@ -1,44 +1,146 @@
 package com.example.PixelmonRaid;
 
-import java.util.Map;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.text.ITextComponent;
+import net.minecraft.util.text.StringTextComponent;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.UUID;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.TreeSet;
+import java.util.UUID;
 
 /**
- * Simple server-side leaderboard for raid damage.
+ * Server-side leaderboard for raid damage; one per RaidSession.
+ *  - players are kept ordered by damage in a TreeSet, so an update is O(log n) and top(n) never sorts
+ *  - every change bumps a version; the rendered top lines are built once per version and shared by
+ *    the end-of-raid chat broadcast and /raidstatus
+ *
  * Thread-safe (synchronized) and kept entirely in memory.
- * You can extend it to persist to disk if you want.
  */
 public final class RaidLeaderboard {
-    private static final Map<UUID, Long> damageMap = new HashMap<>();
+    /** Number of ranks shown wherever the leaderboard is rendered. */
+    public static final int RENDER_SIZE = 5;
+
+    private final Map<UUID, Row> rows = new HashMap<>();
+    private final TreeSet<Row> ranked = new TreeSet<>(RaidLeaderboard::compareRows);
+    private long version;
+
+    // render cache, valid while renderedVersion == version
+    private long renderedVersion = -1L;
+    private List<String> renderedLines = Collections.emptyList();
+    private List<ITextComponent> renderedComponents = Collections.emptyList();
+
+    RaidLeaderboard() {}
+
+    private static final class Row {
+        final UUID id;
+        long damage;
+
+        Row(UUID id) { this.id = id; }
+    }
 
-    private RaidLeaderboard() {}
+    // damage desc, then UUID so distinct players never compare equal
+    private static int compareRows(Row a, Row b) {
+        int c = Long.compare(b.damage, a.damage);
+        return c != 0 ? c : a.id.compareTo(b.id);
+    }
 
     /** Adds damage to the player's total. Pass positive damage numbers only. */
-    public static synchronized void recordDamage(UUID playerId, long damage) {
+    public synchronized void recordDamage(UUID playerId, long damage) {
         if (playerId == null || damage <= 0) return;
-        damageMap.put(playerId, damageMap.getOrDefault(playerId, 0L) + damage);
+        Row row = rows.get(playerId);
+        if (row == null) {
+            row = new Row(playerId);
+            rows.put(playerId, row);
+        } else {
+            ranked.remove(row);
+        }
+        row.damage += damage;
+        ranked.add(row);
+        version++;
+    }
+
+    /** Get a snapshot of the top N players as a list of Map.Entry<UUID,damage> sorted desc (n <= 0 = all). */
+    public synchronized List<Entry<UUID, Long>> top(int n) {
+        int limit = n <= 0 ? ranked.size() : Math.min(n, ranked.size());
+        List<Entry<UUID, Long>> list = new ArrayList<>(limit);
+        Iterator<Row> it = ranked.iterator();
+        while (list.size() < limit && it.hasNext()) {
+            Row r = it.next();
+            list.add(new AbstractMap.SimpleImmutableEntry<>(r.id, r.damage));
+        }
+        return list;
+    }
+
+    /** Incremented on every change; equal versions mean identical standings. */
+    public synchronized long getVersion() {
+        return version;
     }
 
-    /** Get a snapshot of the top N players as a list of Map.Entry<UUID,damage> sorted desc. */
-    public static synchronized List<Entry<UUID, Long>> top(int n) {
-        List<Entry<UUID, Long>> list = new ArrayList<>(damageMap.entrySet());
-        list.sort(Comparator.comparingLong((Entry<UUID, Long> e) -> e.getValue()).reversed());
-        if (n <= 0 || n >= list.size()) return list;
-        return list.subList(0, n);
+    /**
+     * Top RENDER_SIZE standings as chat lines (header, ranks, footer); empty when nobody dealt damage.
+     * Built once per version. The returned list is shared: do not modify it.
+     */
+    public synchronized List<String> renderLines(MinecraftServer server) {
+        ensureRendered(server);
+        return renderedLines;
+    }
+
+    /** Same as renderLines, as chat components. The returned list is shared: do not modify it. */
+    public synchronized List<ITextComponent> renderComponents(MinecraftServer server) {
+        ensureRendered(server);
+        return renderedComponents;
+    }
+
+    private void ensureRendered(MinecraftServer server) {
+        if (renderedVersion == version) return;
+        if (ranked.isEmpty()) {
+            renderedLines = Collections.emptyList();
+            renderedComponents = Collections.emptyList();
+            renderedVersion = version;
+            return;
+        }
+        List<String> lines = new ArrayList<>(RENDER_SIZE + 2);
+        lines.add("§6===== §eRaid Leaderboard §6=====");
+        int rank = 1;
+        for (Row r : ranked) {
+            if (rank > RENDER_SIZE) break;
+            String name = r.id.toString();
+            try {
+                ServerPlayerEntity sp = server != null ? server.getPlayerList().getPlayer(r.id) : null;
+                if (sp != null) name = sp.getName().getString();
+            } catch (Throwable ignored) {}
+            lines.add(String.format("§b#%d §f%s §7— §c%d dmg", rank, name, r.damage));
+            rank++;
+        }
+        lines.add("§6===============================");
+
+        List<ITextComponent> components = new ArrayList<>(lines.size());
+        for (String s : lines) components.add(new StringTextComponent(s));
+
+        renderedLines = Collections.unmodifiableList(lines);
+        renderedComponents = Collections.unmodifiableList(components);
+        renderedVersion = version;
     }
 
     /** Clear leaderboard for next raid. */
-    public static synchronized void reset() {
-        damageMap.clear();
+    public synchronized void reset() {
+        rows.clear();
+        ranked.clear();
+        version++;
     }
 
     /** Return a defensive copy of the full map. */
-    public static synchronized Map<UUID, Long> snapshot() {
-        return new HashMap<>(damageMap);
+    public synchronized Map<UUID, Long> snapshot() {
+        Map<UUID, Long> copy = new HashMap<>(rows.size() * 2);
+        for (Row r : ranked) copy.put(r.id, r.damage);
+        return copy;
     }
 }
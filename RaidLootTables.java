@@ -0,0 +1,135 @@
+package com.example.PixelmonRaid;
+
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.event.server.FMLServerStartingEvent;
+import net.minecraftforge.fml.loading.FMLPaths;
+import net.minecraftforge.registries.ForgeRegistries;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Weighted loot pools rolled on top of the plain chance rewards.
+ * File: config/pixelmonraid_loot.txt, one entry per line:
+ *  - pool,item,count,weight[,rare|guaranteed]   e.g. HARD,pixelmon:master_ball,1,0.5,rare
+ *  - pool,rolls=N  /  pool,pity=N               weighted draws per raid / draws before a rare drop is forced
+ *
+ * A player rolls the pool of the raid's difficulty (EASY, NORMAL, HARD, NIGHTMARE) and the pool of their
+ * damage tier (TIER_A, TIER_B, TIER_C, from the tier cutoffs in pixelmonraid_config.json). Missing pools are skipped.
+ * Pools are compiled into DropSets when the server starts (the item registry must be complete) and again whenever
+ * ConfigWatcher sees the file change; bad lines are reported once per compile. Compiled pools are replaced as a whole and never modified, so the reward worker reads them freely.
+ */
+@Mod.EventBusSubscriber(modid = PixelmonRaidMod.MODID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class RaidLootTables {
+    public static final String FILENAME = "pixelmonraid_loot.txt";
+    private static final RaidLootTables INSTANCE = new RaidLootTables();
+
+    public static RaidLootTables getInstance() { return INSTANCE; }
+
+    private final Path file;
+    private volatile Map<String, DropSet> pools = Collections.emptyMap();
+
+    private RaidLootTables() {
+        file = FMLPaths.CONFIGDIR.get().resolve(FILENAME);
+    }
+
+    Path getFile() { return file; }
+
+    /** Pool key for a damage tier letter ('A', 'B' or 'C'). */
+    public static String tierPool(char tier) {
+        return "TIER_" + tier;
+    }
+
+    /** The compiled pool, or null when none is configured. */
+    public DropSet getPool(String key) {
+        return key == null ? null : pools.get(key);
+    }
+
+    public boolean isEmpty() {
+        return pools.isEmpty();
+    }
+
+    @SubscribeEvent
+    public static void onServerStarting(FMLServerStartingEvent evt) {
+        INSTANCE.reload();
+    }
+
+    /** Re-read the file and swap in the compiled pools. */
+    public synchronized void reload() {
+        try {
+            if (!Files.exists(file)) writeDefault();
+            Map<String, DropSet> compiled = compile(Files.readAllLines(file, StandardCharsets.UTF_8));
+            pools = Collections.unmodifiableMap(compiled);
+            System.out.println("[PixelmonRaid] Loot tables loaded (" + compiled.size() + " pools).");
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static Map<String, DropSet> compile(List<String> lines) {
+        Map<String, DropSet> out = new HashMap<>();
+        int lineNo = 0;
+        for (String raw : lines) {
+            lineNo++;
+            String line = raw == null ? "" : raw.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] parts = line.split(",");
+            for (int i = 0; i < parts.length; i++) parts[i] = parts[i].trim();
+            String pool = parts[0].toUpperCase(Locale.ROOT);
+            try {
+                if (parts.length == 2 && parts[1].contains("=")) {
+                    String[] kv = parts[1].split("=", 2);
+                    int value = Integer.parseInt(kv[1].trim());
+                    DropSet set = out.computeIfAbsent(pool, k -> new DropSet());
+                    if ("rolls".equalsIgnoreCase(kv[0].trim())) set.setRolls(value);
+                    else if ("pity".equalsIgnoreCase(kv[0].trim())) set.setPityThreshold(value);
+                    else throw new IllegalArgumentException("unknown setting " + kv[0]);
+                    continue;
+                }
+                if (parts.length < 4) throw new IllegalArgumentException("expected pool,item,count,weight[,flag]");
+                Item item = ForgeRegistries.ITEMS.getValue(new ResourceLocation(parts[1]));
+                if (item == null || item == Items.AIR) throw new IllegalArgumentException("unknown item " + parts[1]);
+                int count = Math.max(1, Integer.parseInt(parts[2]));
+                double weight = Double.parseDouble(parts[3]);
+                String flag = parts.length >= 5 ? parts[4].toLowerCase(Locale.ROOT) : "";
+                DropSet set = out.computeIfAbsent(pool, k -> new DropSet());
+                ItemStack stack = new ItemStack(item, count);
+                if ("guaranteed".equals(flag)) {
+                    set.addGuaranteed(stack);
+                } else {
+                    if (!(weight > 0.0)) throw new IllegalArgumentException("weight must be positive");
+                    set.addDrop(stack, weight, "rare".equals(flag));
+                }
+            } catch (Exception e) {
+                System.err.println("[PixelmonRaid] " + FILENAME + " line " + lineNo + " skipped (" + e.getMessage() + "): " + line);
+            }
+        }
+        out.values().removeIf(DropSet::isEmpty);
+        return out;
+    }
+
+    private void writeDefault() throws IOException {
+        Path parent = file.getParent();
+        if (parent != null && !Files.exists(parent)) Files.createDirectories(parent);
+        List<String> lines = Arrays.asList(
+                "# pool,item,count,weight[,rare|guaranteed]",
+                "# pool,rolls=N   weighted draws per raid (default 1)",
+                "# pool,pity=N    after N draws without a rare drop, the next draw is rare (0 = off)",
+                "# pools: EASY, NORMAL, HARD, NIGHTMARE (raid difficulty) and TIER_A, TIER_B, TIER_C (damage share)",
+                "#",
+                "# HARD,rolls=1",
+                "# HARD,pity=10",
+                "# HARD,pixelmon:rare_candy,3,8",
+                "# HARD,pixelmon:master_ball,1,0.5,rare",
+                "# TIER_A,pixelmon:xl_exp_candy,1,1,guaranteed"
+        );
+        Files.write(file, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.PixelmonRaid;
+
+import com.pixelmonmod.pixelmon.api.events.storage.ChangeStorageEvent;
+import com.pixelmonmod.pixelmon.api.pokemon.Pokemon;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Battle inputs prepared when a player joins a raid, instead of when their battle starts.
+ *  - prepare() fetches the party once, checks it is battle-ready (a healthy non-egg Pokemon to lead, and
+ *    that lead is not legendary, which RaidBossRestrictionsHandler would cancel) and caches it
+ *  - battle start takes the cached party (partyFor) so building the PlayerParticipant is a plain hand-off
+ *  - the cache entry is dropped when the player's party storage changes or they log out
+ *
+ * Registered on both the Forge bus (logout) and the Pixelmon bus (storage changes) by PixelmonRaidMod.
+ * Server thread only.
+ */
+public final class RaidParticipantCache {
+    private static final Map<UUID, List<?>> PARTIES = new HashMap<>();
+
+    /**
+     * Validate and cache the player's party. Returns null when the player may join,
+     * otherwise the reason to show them.
+     */
+    public static String prepare(ServerPlayerEntity player) {
+        if (player == null) return "Only players can join raids.";
+        List<?> party = PixelmonBattleBridge.getParty(player);
+        if (party == null) {
+            // storage unreachable: let them in, battle start will fetch the party itself
+            PARTIES.remove(player.getUUID());
+            return null;
+        }
+        Pokemon lead = null;
+        for (Object o : party) {
+            if (!(o instanceof Pokemon)) continue;
+            Pokemon p = (Pokemon) o;
+            if (p.isEgg() || p.getHealth() <= 0) continue;
+            lead = p;
+            break;
+        }
+        if (lead == null) {
+            PARTIES.remove(player.getUUID());
+            return "You need at least one healthy Pokémon in your party to join a raid.";
+        }
+        if (lead.getSpecies().isLegendary()) {
+            PARTIES.remove(player.getUUID());
+            return "§cLegendary Pokémon are banned in raid battles! Move " + lead.getSpecies().getName() + " out of your lead slot.";
+        }
+        PARTIES.put(player.getUUID(), party);
+        return null;
+    }
+
+    /** The party cached at join time, or a fresh fetch when there is none. */
+    public static List<?> partyFor(ServerPlayerEntity player) {
+        List<?> cached = PARTIES.get(player.getUUID());
+        return cached != null ? cached : PixelmonBattleBridge.getParty(player);
+    }
+
+    public static void invalidate(UUID playerId) {
+        if (playerId != null) PARTIES.remove(playerId);
+    }
+
+    // Pixelmon bus: a Pokemon moved into or out of some storage (party, PC, trade, release...)
+    @SubscribeEvent
+    public void onStorageChange(ChangeStorageEvent event) {
+        try {
+            if (event.oldStorage != null) invalidate(event.oldStorage.uuid);
+            if (event.newStorage != null) invalidate(event.newStorage.uuid);
+        } catch (Throwable ignored) {}
+    }
+
+    // Forge bus
+    @SubscribeEvent
+    public void onLogout(PlayerEvent.PlayerLoggedOutEvent event) {
+        if (event.getPlayer() != null) invalidate(event.getPlayer().getUUID());
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.PixelmonRaid;
+
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.text.StringTextComponent;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Boss phases. phaseThresholds become absolute damage cut-offs on the boss's RaidBossState when it spawns
+ * (RaidSpawner), so after each hit onDamage is one compare of the pool total against the next cut-off;
+ * only the hit that crosses it does any more work.
+ *
+ * Every phase entered is handed once to each registered PhaseListener, on the server thread. Built in:
+ *  - enrage: the session's boss damage multiplier becomes difficulty x enrageMultipliers[phase - 1]
+ *  - an announcement to the raid's players
+ *  - boss-bar colour and title (BossBarBroadcaster.setPhase)
+ */
+public final class RaidPhaseEngine {
+    private RaidPhaseEngine() {}
+
+    public interface PhaseListener {
+        void onPhaseEntered(RaidSession session, int phase);
+    }
+
+    private static final List<PhaseListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    static {
+        addListener(RaidPhaseEngine::enrage);
+        addListener(RaidPhaseEngine::announce);
+        addListener((session, phase) -> session.getBossBar().setPhase(phase));
+    }
+
+    public static void addListener(PhaseListener listener) {
+        if (listener != null) LISTENERS.add(listener);
+    }
+
+    public static void removeListener(PhaseListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /** Called with the pool total after every hit. */
+    public static void onDamage(RaidSession session, RaidBossState pool, long dealt) {
+        int phase;
+        while ((phase = pool.advancePhase(dealt)) >= 0) fire(session, phase);
+    }
+
+    /** Back to phase 0 values at the start of a raid. */
+    public static void reset(RaidSession session) {
+        session.setBossDamageMultiplier(session.getDifficulty().getBossDamageMultiplier());
+        session.getBossBar().setPhase(0);
+    }
+
+    private static void fire(RaidSession session, int phase) {
+        MinecraftServer server = session.getWorld().getServer();
+        if (server != null && !server.isSameThread()) {
+            server.execute(() -> fire(session, phase));
+            return;
+        }
+        for (PhaseListener listener : LISTENERS) {
+            try {
+                listener.onPhaseEntered(session, phase);
+            } catch (Throwable t) {
+                t.printStackTrace();
+            }
+        }
+    }
+
+    private static void enrage(RaidSession session, int phase) {
+        double m = session.getDifficulty().getBossDamageMultiplier() * PixelmonRaidConfig.current().getEnrageMultiplier(phase);
+        session.setBossDamageMultiplier((float) m);
+    }
+
+    private static void announce(RaidSession session, int phase) {
+        MinecraftServer server = session.getWorld().getServer();
+        if (server == null) return;
+        String msg = String.format("§c[PixelmonRaid] The raid boss enters phase %d and grows enraged! §7(x%.2f damage)",
+                phase + 1, session.getBossDamageMultiplier());
+        for (UUID id : session.getPlayers()) {
+            try {
+                ServerPlayerEntity p = server.getPlayerList().getPlayer(id);
+                if (p != null) p.sendMessage(new StringTextComponent(msg), p.getUUID());
+            } catch (Throwable ignored) {}
+        }
+    }
+}
@@ -1,110 +1,169 @@
 package com.example.PixelmonRaid;
 
+import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.entity.player.ServerPlayerEntity;
-import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
-import net.minecraft.util.ResourceLocation;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.util.Util;
 import net.minecraft.util.text.ChatType;
+import net.minecraft.util.text.ITextComponent;
 import net.minecraft.util.text.StringTextComponent;
-import net.minecraftforge.registries.ForgeRegistries;
-import net.minecraftforge.fml.network.PacketDistributor;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
+/**
+ * Raid rewards.
+ *  - distributeRewards only announces and captures a RewardAllocator.Input; the rolls run on RewardDispatcher's worker
+ *  - RewardAllocator (worker thread) turns the damage snapshot into a RewardAllocation: every player's share,
+ *    tier, catalogue chance rolls and the weighted loot pools for the raid difficulty and their tier (RaidLootTables)
+ *  - announce (server thread) tells each player their share and tier once the allocation is known
+ *  - applyPlan (server thread) copies the template stacks, fills the inventory, updates pity counters
+ *    and sends the reward screen
+ *
+ * Pity counters are read when the raid ends (the rolls need them) but written as a change when the plan is
+ * applied: reset to the draws since a rare drop, or the current counter plus this raid's draws. So another raid's
+ * plan applied in between is not overwritten with stale values.
+ *
+ * No parsing or registry lookups happen here; that is done once when the catalogue and pools are compiled.
+ */
 public class RaidRewardHandler {
-    private static final Random RAND = new Random();
+    // pity counters live in the player's persisted Forge data so they survive deaths and restarts
+    private static final String PITY_TAG = "PixelmonRaidPity";
+
+    /** One player's entry of a finished allocation, waiting to be handed out. */
+    static final class RewardPlan {
+        final MinecraftServer server;
+        final RewardAllocation allocation;
+        final RewardAllocation.Entry entry;
+
+        RewardPlan(MinecraftServer server, RewardAllocation allocation, RewardAllocation.Entry entry) {
+            this.server = server;
+            this.allocation = allocation;
+            this.entry = entry;
+        }
+    }
 
     public static void distributeRewards(RaidSession session) {
         if (session == null) return;
+        MinecraftServer server = session.getWorld().getServer();
 
-        List<RaidRewardsConfig.RewardEntry> configs = RaidRewardsConfig.getInstance().getRewards();
-        if (configs == null || configs.isEmpty()) {
+        RewardCatalogue catalogue = RaidRewardsConfig.getInstance().getCatalogue();
+        RaidLootTables loot = RaidLootTables.getInstance();
+        if (server == null || (catalogue.isEmpty() && loot.isEmpty())) {
             broadcastLeaderboard(session);
             return;
         }
 
-        for (UUID uuid : session.getPlayers()) {
-            ServerPlayerEntity player = session.getWorld().getServer().getPlayerList().getPlayer(uuid);
-            if (player == null) continue;
+        DamageTracker.Snapshot damage = session.getDamageTracker().snapshot();
+        String difficultyKey = session.getDifficulty().name();
+        DropSet difficultyPool = loot.getPool(difficultyKey);
 
-            List<ItemStack> toGive = new ArrayList<>();
+        DropSet[] tierPools = new DropSet[]{
+                loot.getPool(RaidLootTables.tierPool('A')),
+                loot.getPool(RaidLootTables.tierPool('B')),
+                loot.getPool(RaidLootTables.tierPool('C'))};
 
-            for (RaidRewardsConfig.RewardEntry re : configs) {
-                if (re == null || re.item == null) continue;
+        // tell everyone right away; the actual items follow over the next ticks
+        Set<UUID> players = session.getPlayers();
+        UUID[] roster = players.toArray(new UUID[0]);
+        int[][] pity = new int[roster.length][4];
+        for (int i = 0; i < roster.length; i++) {
+            try {
+                ServerPlayerEntity player = server.getPlayerList().getPlayer(roster[i]);
+                if (player == null) continue;
+                player.sendMessage(new StringTextComponent("§eRaid rewards incoming..."), player.getUUID());
+                // the allocator only knows the tier after the snapshot pass, so read every pool's counter now
+                CompoundNBT counters = pityCounters(player);
+                pity[i][0] = counters.getInt(difficultyKey);
+                pity[i][1] = counters.getInt(RaidLootTables.tierPool('A'));
+                pity[i][2] = counters.getInt(RaidLootTables.tierPool('B'));
+                pity[i][3] = counters.getInt(RaidLootTables.tierPool('C'));
+            } catch (Throwable ignored) {}
+        }
+        RewardDispatcher.submit(server, new RewardAllocator.Input(session.getRaidSeed(), damage, roster, pity,
+                difficultyKey, difficultyPool, tierPools, catalogue, PixelmonRaidConfig.current()));
 
-                float chance = Math.max(0f, Math.min(1f, re.chance));
-                if (RAND.nextFloat() > chance) continue;
+        broadcastLeaderboard(session);
+    }
 
-                try {
-                    ResourceLocation rl = new ResourceLocation(re.item);
-                    Item item = ForgeRegistries.ITEMS.getValue(rl);
-                    if (item != null) {
-                        int count = Math.max(1, re.count);
-                        toGive.add(new ItemStack(item, count));
-                    }
-                } catch (Exception ignored) { }
-            }
+    /** Tell each online player their share and tier, and everyone the tier head-counts. Server thread only. */
+    static void announce(MinecraftServer server, RewardAllocation allocation) {
+        for (int i = 0; i < allocation.size(); i++) {
+            UUID id = allocation.entryAt(i).getPlayer();
+            try {
+                ServerPlayerEntity player = server.getPlayerList().getPlayer(id);
+                if (player != null) player.sendMessage(new StringTextComponent(allocation.summaryFor(id)), player.getUUID());
+            } catch (Throwable ignored) {}
+        }
+        server.getPlayerList().broadcastMessage(new StringTextComponent(allocation.tierSummary()), ChatType.SYSTEM, Util.NIL_UUID);
+    }
 
-            // Give items (try inventory first, otherwise drop)
-            for (ItemStack st : toGive) {
-                if (st == null || st.isEmpty()) continue;
-                ItemStack copy = st.copy();
-                boolean added = player.inventory.add(copy);
-                if (!added) player.drop(copy, false);
-            }
+    /**
+     * Hand out a plan. Server thread only. Returns false, without touching anything, when the player is offline;
+     * RewardDispatcher keeps the plan until they log back in.
+     */
+    static boolean applyPlan(RewardPlan plan) {
+        RewardAllocation.Entry entry = plan.entry;
+        ServerPlayerEntity player = plan.server.getPlayerList().getPlayer(entry.getPlayer());
+        if (player == null) return false;
+
+        RewardCatalogue catalogue = plan.allocation.getCatalogue();
+        List<String> rewardStrings = new ArrayList<>(entry.hitCount() + entry.getLoot().size());
+        for (int h = 0; h < entry.hitCount(); h++) {
+            int i = entry.hitAt(h);
+            rewardStrings.add(catalogue.labelAt(i));
+            give(player, catalogue.templateAt(i).copy());
+        }
+        for (ItemStack st : entry.getLoot()) {
+            rewardStrings.add(st.getCount() + "x " + st.getHoverName().getString());
+            give(player, st.copy());
+        }
 
-            if (!toGive.isEmpty()) {
-                player.sendMessage(new StringTextComponent("You received raid rewards! Check your inventory."), player.getUUID());
+        try {
+            CompoundNBT counters = pityCounters(player);
+            for (int p = 0; p < entry.poolCount(); p++) {
+                String key = entry.poolKeyAt(p);
+                counters.putInt(key, entry.pityAfter(p, counters.getInt(key)));
             }
+        } catch (Throwable ignored) {}
 
-            try {
-                List<String> rewardStrings = toGive.stream()
-                        .map(s -> s.getCount() + "x " + s.getHoverName().getString())
-                        .collect(Collectors.toList());
-
-                PacketHandler.sendRewardScreenPacketToPlayer(player, rewardStrings);
-            } catch (Throwable ignored) {}
+        if (!rewardStrings.isEmpty()) {
+            player.sendMessage(new StringTextComponent("You received raid rewards! Check your inventory."), player.getUUID());
         }
 
-        broadcastLeaderboard(session);
+        try {
+            PacketHandler.sendRewardScreenPacketToPlayer(player, rewardStrings);
+        } catch (Throwable ignored) {}
+        return true;
+    }
+
+    // Give items (try inventory first, otherwise drop)
+    private static void give(ServerPlayerEntity player, ItemStack st) {
+        if (st == null || st.isEmpty()) return;
+        boolean added = player.inventory.add(st);
+        if (!added) player.drop(st, false);
+    }
+
+    /** The player's pity counters (pool key -> draws since the last rare drop); a live tag, created on demand. */
+    private static CompoundNBT pityCounters(ServerPlayerEntity player) {
+        CompoundNBT data = player.getPersistentData();
+        CompoundNBT persisted = data.getCompound(PlayerEntity.PERSISTED_NBT_TAG);
+        if (!data.contains(PlayerEntity.PERSISTED_NBT_TAG)) data.put(PlayerEntity.PERSISTED_NBT_TAG, persisted);
+        CompoundNBT counters = persisted.getCompound(PITY_TAG);
+        if (!persisted.contains(PITY_TAG)) persisted.put(PITY_TAG, counters);
+        return counters;
     }
 
     private static void broadcastLeaderboard(RaidSession session) {
         if (session == null) return;
-        DamageTracker tracker = RaidState.getDamageTracker();
-        if (tracker == null) return;
-
-        Map<UUID, Integer> damageMap = tracker.getAllDamage();
-        if (damageMap == null || damageMap.isEmpty()) {
-            return;
-        }
+        MinecraftServer server = session.getWorld().getServer();
+        if (server == null) return;
 
-        List<Map.Entry<UUID, Integer>> sorted = new ArrayList<>(damageMap.entrySet());
-        sorted.sort((a, b) -> Integer.compare(b.getValue(), a.getValue()));
-
-        List<String> lines = new ArrayList<>();
-        lines.add("§6===== §eRaid Leaderboard §6=====");
-        int rank = 1;
-        for (Map.Entry<UUID, Integer> e : sorted) {
-            if (rank > 3) break;
-            UUID id = e.getKey();
-            int dmg = e.getValue();
-            String name = id.toString();
-            ServerPlayerEntity player = session.getWorld().getServer().getPlayerList().getPlayer(id);
-            if (player != null) name = player.getName().getString();
-            lines.add(String.format("§b#%d §f%s §7— §c%d dmg", rank, name, dmg));
-            rank++;
-        }
-        lines.add("§6===============================");
-
-        for (String s : lines) {
-            session.getWorld().getServer().getPlayerList().broadcastMessage(
-                    new StringTextComponent(s),
-                    ChatType.SYSTEM,
-                    Util.NIL_UUID
-            );
+        // rendered once per leaderboard version and shared with /raidstatus
+        List<ITextComponent> lines = session.getLeaderboard().renderComponents(server);
+        for (ITextComponent line : lines) {
+            server.getPlayerList().broadcastMessage(line, ChatType.SYSTEM, Util.NIL_UUID);
         }
     }
 }
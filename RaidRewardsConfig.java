@@ -1,5 +1,8 @@
 package com.example.PixelmonRaid;
 
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.event.server.FMLServerStartingEvent;
 import net.minecraftforge.fml.loading.FMLPaths;
 
 import java.io.IOException;
@@ -11,7 +14,13 @@ import java.util.*;
  * Simple file-backed reward config.
  * Each line in config/pixelmonraid_rewards.txt is: itemRegistryName,count,chance
  * Example: pixelmon:rare_candy,2,0.75
+ *
+ * The table is published as an immutable Snapshot (entries + compiled RewardCatalogue) through one
+ * volatile reference; every load and edit builds a new snapshot and swaps it in, and ConfigWatcher reloads
+ * it when the file changes. Until the server starts the item registry may be incomplete, so compiling the
+ * catalogue waits for FMLServerStartingEvent.
  */
+@Mod.EventBusSubscriber(modid = PixelmonRaidMod.MODID, bus = Mod.EventBusSubscriber.Bus.FORGE)
 public class RaidRewardsConfig {
     public static final String FILENAME = "pixelmonraid_rewards.txt";
     private static final RaidRewardsConfig INSTANCE = new RaidRewardsConfig();
@@ -43,48 +52,95 @@ public class RaidRewardsConfig {
             try {
                 if (parts.length >= 2) count = Integer.parseInt(parts[1].trim());
                 if (parts.length >= 3) chance = Float.parseFloat(parts[2].trim());
-            } catch (NumberFormatException ignored) {}
+            } catch (NumberFormatException e) {
+                System.err.println("[PixelmonRaid] Bad count/chance in reward line '" + line.trim() + "', using count " + count + ", chance " + chance + ".");
+            }
             return new RewardEntry(item, count, chance);
         }
     }
 
-    private final List<RewardEntry> rewards = new ArrayList<>();
+    /** The reward table as loaded, plus its compiled catalogue; immutable, swapped as a whole. */
+    public static final class Snapshot {
+        private final List<RewardEntry> entries;
+        private final RewardCatalogue catalogue;
+
+        private Snapshot(List<RewardEntry> entries, RewardCatalogue catalogue) {
+            this.entries = entries;
+            this.catalogue = catalogue;
+        }
+
+        /** Unmodifiable. */
+        public List<RewardEntry> getEntries() { return entries; }
+        public RewardCatalogue getCatalogue() { return catalogue; }
+    }
+
     private final Path file;
+    private volatile Snapshot current = new Snapshot(Collections.<RewardEntry>emptyList(), RewardCatalogue.EMPTY);
+    private boolean registriesReady;
 
     private RaidRewardsConfig() {
         file = FMLPaths.CONFIGDIR.get().resolve(FILENAME);
         load();
     }
 
+    /** The table in effect right now (one volatile read). */
+    public static Snapshot current() { return INSTANCE.current; }
+
+    Path getFile() { return file; }
+
     // ---- Public helpers expected by other code ----
 
     /** Return a defensive copy of the RewardEntry list. */
-    public synchronized List<RewardEntry> getRewards() {
-        return new ArrayList<>(rewards);
+    public List<RewardEntry> getRewards() {
+        return new ArrayList<>(current.entries);
+    }
+
+    /** The compiled table used for distribution. Lock-free; safe to read from any thread. */
+    public RewardCatalogue getCatalogue() {
+        return current.catalogue;
+    }
+
+    // caller holds the lock; compiles (once registries are ready) and swaps in the new table
+    private void publish(List<RewardEntry> entries) {
+        List<RewardEntry> copy = Collections.unmodifiableList(new ArrayList<>(entries));
+        current = new Snapshot(copy, registriesReady ? RewardCatalogue.compile(copy) : RewardCatalogue.EMPTY);
+    }
+
+    @SubscribeEvent
+    public static void onServerStarting(FMLServerStartingEvent evt) {
+        synchronized (INSTANCE) {
+            INSTANCE.registriesReady = true;
+            INSTANCE.publish(INSTANCE.current.entries);
+        }
+        System.out.println("[PixelmonRaid] Reward catalogue compiled (" + INSTANCE.getCatalogue().size() + " usable entries).");
     }
 
     /** Return a list of lines (string) used by older callers like getRewardLines(). */
-    public synchronized List<String> getRewardLines() {
+    public List<String> getRewardLines() {
         List<String> lines = new ArrayList<>();
-        for (RewardEntry r : rewards) lines.add(r.toLine());
+        for (RewardEntry r : current.entries) lines.add(r.toLine());
         return lines;
     }
 
     /** Replace full list atomically. */
     public synchronized void setRewards(List<RewardEntry> newRewards) {
-        rewards.clear();
-        if (newRewards != null) rewards.addAll(newRewards);
+        publish(newRewards != null ? newRewards : Collections.<RewardEntry>emptyList());
     }
 
     /** Add a single reward entry (append). */
     public synchronized void addReward(RewardEntry re) {
-        if (re != null) rewards.add(re);
+        if (re == null) return;
+        List<RewardEntry> next = new ArrayList<>(current.entries);
+        next.add(re);
+        publish(next);
     }
 
     /** Remove a reward by index (returns true when removed). */
     public synchronized boolean removeReward(int index) {
-        if (index < 0 || index >= rewards.size()) return false;
-        rewards.remove(index);
+        List<RewardEntry> next = new ArrayList<>(current.entries);
+        if (index < 0 || index >= next.size()) return false;
+        next.remove(index);
+        publish(next);
         return true;
     }
 
@@ -94,28 +150,31 @@ public class RaidRewardsConfig {
             Path parent = file.getParent();
             if (parent != null && !Files.exists(parent)) Files.createDirectories(parent);
             List<String> lines = new ArrayList<>();
-            for (RewardEntry re : rewards) lines.add(re.toLine());
+            for (RewardEntry re : current.entries) lines.add(re.toLine());
             Files.write(file, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
-    /** Load config from file, or create a sensible default if missing. */
-    public final void load() {
-        rewards.clear();
+    /** Load config from file, or create a sensible default if missing. The previous table stays if the file cannot be read. */
+    public final synchronized void load() {
         try {
+            List<RewardEntry> rewards = new ArrayList<>();
             if (Files.exists(file)) {
                 List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
                 for (String l : lines) {
                     if (l == null || l.trim().isEmpty()) continue;
                     RewardEntry r = RewardEntry.fromLine(l);
                     if (r != null) rewards.add(r);
+                    else System.err.println("[PixelmonRaid] Ignoring reward line: " + l);
                 }
+                publish(rewards);
             } else {
                 // default sample items (pixelmon items only)
                 rewards.add(new RewardEntry("pixelmon:rare_candy", 2, 0.8f));
                 rewards.add(new RewardEntry("pixelmon:xl_exp_candy", 1, 0.4f));
+                publish(rewards);
                 save();
             }
         } catch (IOException e) {
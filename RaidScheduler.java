@@ -0,0 +1,110 @@
+package com.example.PixelmonRaid;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.event.server.FMLServerStoppingEvent;
+import net.minecraftforge.fml.server.ServerLifecycleHooks;
+
+import java.util.PriorityQueue;
+
+/**
+ * Runs raid start/end work as small prioritised tasks on the server thread, a few per tick.
+ *  - tasks run highest priority first, FIFO within a priority
+ *  - at END of each server tick the queue is drained until the configured budget (raidTaskBudgetMillis) is
+ *    spent, or until the tick as a whole has used TICK_TARGET_MILLIS; at least one task runs per tick
+ *  - schedule() may be called from any thread: off-thread calls hop to the server through its own executor
+ *    (MinecraftServer.execute), never through reflection
+ *
+ * Tasks should check that their raid is still current (see RaidSession.isCurrentRaid) since the raid may have
+ * ended or been stopped before they run.
+ */
+@Mod.EventBusSubscriber(modid = PixelmonRaidMod.MODID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class RaidScheduler {
+    private RaidScheduler() {}
+
+    /** Leave headroom below the 50 ms tick for everything else the server does after us. */
+    private static final long TICK_TARGET_MILLIS = 40L;
+
+    public enum Priority { CRITICAL, HIGH, NORMAL, LOW }
+
+    private static final class Task implements Comparable<Task> {
+        final Priority priority;
+        final long seq;
+        final String name;
+        final Runnable body;
+
+        Task(Priority priority, long seq, String name, Runnable body) {
+            this.priority = priority;
+            this.seq = seq;
+            this.name = name;
+            this.body = body;
+        }
+
+        @Override
+        public int compareTo(Task o) {
+            int c = priority.compareTo(o.priority);
+            return c != 0 ? c : Long.compare(seq, o.seq);
+        }
+    }
+
+    // server thread only
+    private static final PriorityQueue<Task> QUEUE = new PriorityQueue<>();
+    private static long nextSeq;
+    private static long tickStartNanos;
+
+    /** Queue a task for the server thread. */
+    public static void schedule(Priority priority, String name, Runnable body) {
+        if (body == null) return;
+        MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+        if (server != null && !server.isSameThread()) {
+            server.execute(() -> schedule(priority, name, body));
+            return;
+        }
+        QUEUE.add(new Task(priority == null ? Priority.NORMAL : priority, nextSeq++, name, body));
+    }
+
+    /** Tasks waiting to run (for status output). */
+    public static int pending() {
+        return QUEUE.size();
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event == null) return;
+        if (event.phase == TickEvent.Phase.START) {
+            tickStartNanos = System.nanoTime();
+            return;
+        }
+        if (QUEUE.isEmpty()) return;
+
+        long now = System.nanoTime();
+        long budgetEnd = now + PixelmonRaidConfig.current().getRaidTaskBudgetMillis() * 1_000_000L;
+        long tickEnd = tickStartNanos + TICK_TARGET_MILLIS * 1_000_000L;
+        long deadline = Math.min(budgetEnd, tickEnd);
+        int ran = 0;
+        Task task;
+        while ((task = QUEUE.peek()) != null) {
+            if (ran > 0 && System.nanoTime() >= deadline) break;
+            QUEUE.poll();
+            ran++;
+            long started = System.nanoTime();
+            try {
+                task.body.run();
+            } catch (Throwable t) {
+                System.err.println("[PixelmonRaid] Raid task '" + task.name + "' failed: " + t);
+                t.printStackTrace();
+            }
+            long tookMillis = (System.nanoTime() - started) / 1_000_000L;
+            if (tookMillis > TICK_TARGET_MILLIS) {
+                System.out.println("[PixelmonRaid] Raid task '" + task.name + "' took " + tookMillis + " ms; consider splitting it.");
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(FMLServerStoppingEvent evt) {
+        QUEUE.clear();
+    }
+}
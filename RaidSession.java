@@ -1,21 +1,26 @@
 package com.example.PixelmonRaid;
 
+import com.pixelmonmod.pixelmon.entities.pixelmon.PixelmonEntity;
 import net.minecraft.entity.player.ServerPlayerEntity;
 import net.minecraft.util.text.StringTextComponent;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.server.ServerWorld;
 import net.minecraft.server.MinecraftServer;
 
-import java.lang.reflect.Method;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Session state for a raid. Controls lifecycle: IDLE -> WAITING -> IN_BATTLE -> COMPLETED
+ * Each session is one arena and owns its difficulty, damage ledger, leaderboard and timers;
+ * sessions are created and looked up through RaidSessionRegistry.
+ * The heavy parts of starting and ending a raid (boss spawn, battle start/end) run as RaidScheduler tasks.
+ * Players fight in battle shards (RaidShards) that all feed the primary boss's HP pool.
  */
 public class RaidSession {
     public enum State { IDLE, WAITING, IN_BATTLE, COMPLETED }
@@ -26,17 +31,30 @@ public class RaidSession {
     private long startTick;
     private final Set<UUID> players = new HashSet<>();
     private final Set<UUID> bossEntityUUIDs = new HashSet<>();
+    private UUID primaryBossId; // first boss bound to the raid; holds the HP pool every shard feeds
     private long lastAnnouncedSeconds = Long.MIN_VALUE;
     private boolean rewardsDistributed = false;
-
-    // last known boss percent sent to players (0..1)
-    private float lastBossPercent = -1f;
-
+    private boolean resultsRecorded = false;
+    private int raidId; // bumped per battle; scheduled tasks compare it to know their raid is still running
+    private long raidSeed; // drawn per battle; reward rolls are derived from it (RewardAllocator)
+
+    // per-raid state (reset when the session completes)
+    private RaidDifficulty difficulty = RaidDifficulty.NORMAL;
+    private DamageTracker damageTracker = new DamageTracker();
+    private final RaidLeaderboard leaderboard = new RaidLeaderboard();
+    private final RaidShards shards = new RaidShards(this);
+    private long battleStartTick;
+    private float bossDamageMultiplier = 1.0f;
+
+    // coalesced boss-bar updates, flushed once per tick at most
+    private final BossBarBroadcaster bossBar = new BossBarBroadcaster();
+
+    /** The world's default session; see RaidSessionRegistry for the other arenas. */
     public static RaidSession getSession(ServerWorld world) {
         return RaidSpawner.getSession(world);
     }
 
-    public RaidSession(ServerWorld world, BlockPos center) {
+    RaidSession(ServerWorld world, BlockPos center) {
         this.world = world;
         this.center = center;
     }
@@ -47,9 +65,14 @@ public class RaidSession {
     public State getState() { return state; }
 
     public boolean addPlayer(UUID playerId) {
-        if (players.size() >= 50) return false;
+        if (players.size() >= PixelmonRaidConfig.current().getMaxPlayersPerRaid()) return false;
+        if (players.contains(playerId)) return false;
+        // a player belongs to at most one session at a time
+        if (!RaidSessionRegistry.bindPlayer(playerId, this)) return false;
         boolean added = players.add(playerId);
         if (added) {
+            try { damageTracker.register(playerId); } catch (Throwable ignored) {}
+            bossBar.join(this, playerId);
             try {
                 ServerPlayerEntity sp = world.getServer().getPlayerList().getPlayer(playerId);
                 if (sp != null) sp.sendMessage(new StringTextComponent("You joined the raid!"), sp.getUUID());
@@ -58,15 +81,62 @@ public class RaidSession {
         return added;
     }
 
-    public void removePlayer(UUID playerId) { players.remove(playerId); }
+    public void removePlayer(UUID playerId) {
+        if (players.remove(playerId)) {
+            RaidSessionRegistry.unbindPlayer(playerId, this);
+            bossBar.leave(playerId);
+        }
+    }
 
-    public void addBossEntityUUID(UUID id) { if (id != null) bossEntityUUIDs.add(id); }
+    private void clearPlayers() {
+        for (UUID id : players) {
+            RaidSessionRegistry.unbindPlayer(id, this);
+            bossBar.leave(id);
+        }
+        players.clear();
+    }
+
+    public void addBossEntityUUID(UUID id) {
+        if (id == null) return;
+        bossEntityUUIDs.add(id);
+        if (primaryBossId == null) primaryBossId = id;
+        RaidSessionRegistry.bindBoss(id, this);
+    }
     public Set<UUID> getBossEntityUUIDs() { return new HashSet<>(bossEntityUUIDs); }
-    public void clearBossEntities() { bossEntityUUIDs.clear(); }
+    public void clearBossEntities() {
+        for (UUID id : bossEntityUUIDs) RaidSessionRegistry.unbindBoss(id, this);
+        bossEntityUUIDs.clear();
+        primaryBossId = null;
+    }
+
+    /** The loaded boss holding the raid's HP pool; falls back to any loaded boss (e.g. after a restart). */
+    public PixelmonEntity getPrimaryBoss() {
+        PixelmonEntity primary = RaidBossRegistry.get(primaryBossId);
+        return primary != null ? primary : RaidBossRegistry.findBoss(this);
+    }
+
+    /** The shared HP pool, or null when no boss of this raid is loaded. */
+    public RaidBossState getBossPool() {
+        PixelmonEntity primary = getPrimaryBoss();
+        return primary != null ? RaidBossCapability.get(primary) : null;
+    }
+
+    public RaidDifficulty getDifficulty() { return difficulty; }
+    public void setDifficulty(RaidDifficulty difficulty) { if (difficulty != null) this.difficulty = difficulty; }
+    public DamageTracker getDamageTracker() { return damageTracker; }
+    public RaidLeaderboard getLeaderboard() { return leaderboard; }
+    public RaidShards getShards() { return shards; }
+    public long getBattleStartTick() { return battleStartTick; }
+    public void setBattleStartTick(long tick) { this.battleStartTick = tick; }
+    public float getBossDamageMultiplier() { return bossDamageMultiplier; }
+    public void setBossDamageMultiplier(float m) { this.bossDamageMultiplier = Math.max(0f, m); }
 
     public void setState(State s) {
+        if (s == State.IN_BATTLE) {
+            startRaid(world.getGameTime());
+            return;
+        }
         this.state = s;
-        if (s == State.IN_BATTLE) RaidState.setBattleStartTick(world.getGameTime());
         if (s == State.WAITING) lastAnnouncedSeconds = Long.MIN_VALUE;
         if (s == State.COMPLETED) rewardsDistributed = false;
     }
@@ -86,18 +156,39 @@ public class RaidSession {
 
     public synchronized boolean hasDistributedRewards() { return this.rewardsDistributed; }
 
+    /** Hand this raid's damage totals to the lifetime leaderboard, once per raid. */
+    public void recordLifetimeResults(boolean victory) {
+        synchronized (this) {
+            if (resultsRecorded) return;
+            resultsRecorded = true;
+        }
+        try {
+            LifetimeLeaderboard.getInstance().recordRaid(damageTracker.snapshot(), victory);
+        } catch (Throwable t) {
+            t.printStackTrace();
+        }
+    }
+
+    /** True while the battle that handed out this raid id is still running. */
+    public boolean isCurrentRaid(int id) {
+        return state == State.IN_BATTLE && raidId == id;
+    }
+
+    /** Seed of the current (or last) battle's reward rolls. */
+    public long getRaidSeed() { return raidSeed; }
+
     public long getTicksUntilStart(long currentTick) { return Math.max(0, startTick - currentTick); }
 
-    public float getLastBossPercent() { return lastBossPercent; }
-    public void setLastBossPercent(float p) { lastBossPercent = p; }
+    public BossBarBroadcaster getBossBar() { return bossBar; }
 
     public void tick(long tick) {
         switch (state) {
             case IDLE:
-                if (tick % (20L * 60L * 5L) == 0L) {
+                // only the world's default arena runs the auto-raid cycle; /startraid arenas are one-off
+                if (tick % (20L * 60L * 5L) == 0L && RaidSessionRegistry.isDefault(this)) {
                     state = State.WAITING;
                     startTick = tick;
-                    players.clear();
+                    clearPlayers();
                     world.getPlayers(p -> true).forEach(p ->
                             p.sendMessage(new StringTextComponent("Raid starts soon! Type /joinraid"), p.getUUID())
                     );
@@ -109,46 +200,7 @@ public class RaidSession {
                 long waited = tick - startTick;
                 long waitingDurationTicks = 20L * 30L; // 30 seconds
                 if (waited > waitingDurationTicks) {
-                    try {
-                        double cx = center.getX() + 0.5;
-                        double cy = center.getY();
-                        double cz = center.getZ() + 0.5;
-                        double maxDistSq = 10.0 * 10.0;
-                        world.getPlayers(p -> true).forEach(p -> {
-                            try {
-                                double dx = p.getX() - cx;
-                                double dy = p.getY() - cy;
-                                double dz = p.getZ() - cz;
-                                if (dx*dx + dy*dy + dz*dz <= maxDistSq) players.add(p.getUUID());
-                            } catch (Throwable ignored) {}
-                        });
-                    } catch (Throwable ignored) {}
-
-                    state = State.IN_BATTLE;
-                    // Reset leaderboard at the start of the battle
-                    try { RaidLeaderboard.reset(); } catch (Throwable ignored) {}
-
-                    RaidSpawner.spawnBoss(this);
-                    RaidState.setBattleStartTick(tick);
-
-                    // Best-effort attempt to auto-start battles (but you told me you prefer manual start by ball).
-                    try {
-                        boolean started = RaidBattleStarter.startBattleForSession(this, world);
-                        if (!started) {
-                            System.out.println("[PixelmonRaid] Auto-start of battle for session failed (see RaidBattleStarter logs).");
-                            for (UUID u : new HashSet<>(players)) {
-                                try {
-                                    ServerPlayerEntity pl = world.getServer().getPlayerList().getPlayer(u);
-                                    if (pl != null) {
-                                        RaidBattleStarter.startBattleForPlayer(this, world, pl);
-                                    }
-                                } catch (Throwable ignored) {}
-                            }
-                        }
-                    } catch (Throwable t) {
-                        t.printStackTrace();
-                    }
-
+                    startRaid(tick);
                 } else {
                     long secondsLeft = Math.max(0, (waitingDurationTicks - waited) / 20L);
                     boolean shouldAnnounce = (secondsLeft % 60 == 0) || secondsLeft == 10 || secondsLeft == 5;
@@ -163,7 +215,7 @@ public class RaidSession {
                 break;
 
             case IN_BATTLE:
-                long start = RaidState.getBattleStartTick();
+                long start = battleStartTick;
                 long elapsed = tick - start;
                 long durationTicks = 20L * 120L; // 2 minutes
                 if (elapsed >= durationTicks) {
@@ -179,17 +231,112 @@ public class RaidSession {
                 break;
 
             case COMPLETED:
-                players.clear();
+                // deliver the final value while the roster (and any vanilla watchers) are still there
+                try { bossBar.flush(this, tick, true); } catch (Throwable ignored) {}
+                clearPlayers();
                 clearBossEntities();
-                RaidState.clear();
+                bossBar.reset();
+                resetRaidState();
                 state = State.IDLE;
+                if (!RaidSessionRegistry.isDefault(this)) RaidSessionRegistry.remove(this);
                 break;
         }
     }
 
     /**
-     * Finish raid: stop any Pixelmon battles for players in this session (safely, on server thread),
-     * distribute rewards if victory, despawn boss entities and mark session completed.
+     * Start a battle now, from the auto cycle or /startraid: new raid id, seed and damage ledger, then the
+     * scheduled roster, leaderboard/shard/phase reset, boss spawn and admissions (scheduleRaidStart).
+     */
+    public void startRaid(long tick) {
+        state = State.IN_BATTLE;
+        resultsRecorded = false;
+        battleStartTick = tick;
+        lastAnnouncedSeconds = Long.MIN_VALUE;
+        damageTracker = new DamageTracker();
+        raidId++;
+        newRaidSeed();
+        scheduleRaidStart(raidId);
+    }
+
+    /** Draw this battle's reward seed and log it, so its rewards can be replayed (RewardAllocator). */
+    private void newRaidSeed() {
+        raidSeed = ThreadLocalRandom.current().nextLong();
+        System.out.println(String.format("[PixelmonRaid] Raid #%d at %s started; reward seed %016x",
+                raidId, center.toShortString(), raidSeed));
+    }
+
+    /**
+     * Queue the start of a raid: roster + ledger slots + leaderboard reset, then the boss spawn, then one
+     * BattleAdmissionService join per player (admitted a few per tick, each starting only that player's battle).
+     */
+    private void scheduleRaidStart(final int raid) {
+        RaidScheduler.schedule(RaidScheduler.Priority.CRITICAL, "raid-start:roster", () -> {
+            if (!isCurrentRaid(raid)) return;
+            try {
+                double cx = center.getX() + 0.5;
+                double cy = center.getY();
+                double cz = center.getZ() + 0.5;
+                double maxDistSq = 10.0 * 10.0;
+                final int cap = PixelmonRaidConfig.current().getMaxPlayersPerRaid();
+                world.getPlayers(p -> true).forEach(p -> {
+                    try {
+                        if (players.size() >= cap) return;
+                        double dx = p.getX() - cx;
+                        double dy = p.getY() - cy;
+                        double dz = p.getZ() - cz;
+                        if (dx*dx + dy*dy + dz*dz > maxDistSq) return;
+                        // nearby players without a battle-ready party are left out rather than failing at battle start
+                        if (RaidParticipantCache.prepare(p) != null) return;
+                        if (RaidSessionRegistry.bindPlayer(p.getUUID(), this) && players.add(p.getUUID())) bossBar.join(this, p.getUUID());
+                    } catch (Throwable ignored) {}
+                });
+            } catch (Throwable ignored) {}
+            // give every participant a ledger slot up front so hits never take the slow path
+            for (UUID u : players) {
+                try { damageTracker.register(u); } catch (Throwable ignored) {}
+            }
+            // Reset leaderboard, shards and phase effects at the start of the battle
+            try { leaderboard.reset(); } catch (Throwable ignored) {}
+            shards.clear();
+            RaidPhaseEngine.reset(this);
+        });
+
+        RaidScheduler.schedule(RaidScheduler.Priority.HIGH, "raid-start:spawn", () -> {
+            if (isCurrentRaid(raid)) RaidSpawner.spawnBoss(this);
+        });
+
+        // Best-effort attempt to auto-start battles (but you told me you prefer manual start by ball).
+        // Requests are made together so the roster fills its shards before the first shard battle starts.
+        RaidScheduler.schedule(RaidScheduler.Priority.NORMAL, "raid-start:battle", () -> {
+            if (!isCurrentRaid(raid)) return;
+            for (UUID u : new ArrayList<>(players)) BattleAdmissionService.request(this, u);
+        });
+    }
+
+    /** Queue one end-battle task per player and drop the raid's battle shards; used when a raid ends. */
+    void scheduleEndBattles(Collection<UUID> playerIds) {
+        shards.clear();
+        final MinecraftServer server = world.getServer();
+        for (UUID playerId : playerIds) {
+            RaidScheduler.schedule(RaidScheduler.Priority.HIGH, "raid-end:battle", () -> {
+                ServerPlayerEntity pl = server.getPlayerList().getPlayer(playerId);
+                if (pl != null) PixelmonBattleBridge.endBattle(pl);
+            });
+        }
+    }
+
+    /** Drop per-raid state so the next raid in this arena starts fresh. */
+    private void resetRaidState() {
+        difficulty = RaidDifficulty.NORMAL;
+        damageTracker = new DamageTracker();
+        battleStartTick = 0L;
+        bossDamageMultiplier = 1.0f;
+        resultsRecorded = false;
+    }
+
+    /**
+     * Finish raid: queue the end of any Pixelmon battles for players in this session (RaidScheduler, one task
+     * per player), distribute rewards if victory, despawn boss entities and mark session completed.
      * Also announce leaderboard top players when victory==true.
      */
     public void finishRaid(boolean victory) {
@@ -197,119 +344,37 @@ public class RaidSession {
             // Capture list to avoid concurrent modification
             final List<UUID> playerSnapshot = new ArrayList<>(this.players);
             final ServerWorld serverWorld = this.world;
-            final MinecraftServer server = serverWorld.getServer();
-
-            // Runnable that will attempt to end battles for the players (uses reflective fallbacks)
-            Runnable endBattlesTask = () -> {
-                for (UUID playerId : playerSnapshot) {
-                    try {
-                        ServerPlayerEntity pl = server.getPlayerList().getPlayer(playerId);
-                        if (pl == null) continue;
-
-                        // Try Pixelmon BattleRegistry.getBattle(player) reflectively
-                        try {
-                            Class<?> brClass = Class.forName("com.pixelmonmod.pixelmon.battles.BattleRegistry");
-                            Method getBattleMethod = null;
-                            for (Method m : brClass.getMethods()) {
-                                if ("getBattle".equals(m.getName()) && m.getParameterCount() == 1
-                                        && m.getParameterTypes()[0].isAssignableFrom(ServerPlayerEntity.class)) {
-                                    getBattleMethod = m;
-                                    break;
-                                }
-                            }
-                            Object bc = null;
-                            if (getBattleMethod != null) {
-                                try {
-                                    bc = getBattleMethod.invoke(null, pl);
-                                } catch (Throwable t) {
-                                    // try alternative invocation patterns
-                                    try { bc = getBattleMethod.invoke(null, (Object) pl); } catch (Throwable ignored) {}
-                                }
-                            }
-
-                            if (bc != null) {
-                                // call endBattle() reflectively
-                                try {
-                                    Method end = bc.getClass().getMethod("endBattle");
-                                    end.invoke(bc);
-                                } catch (NoSuchMethodException nsme) {
-                                    for (Method m : bc.getClass().getMethods()) {
-                                        String name = m.getName().toLowerCase();
-                                        if (name.contains("end") || name.contains("finish") || name.contains("stop") || name.contains("close")) {
-                                            try { m.invoke(bc); break; } catch (Throwable ignored) {}
-                                        }
-                                    }
-                                } catch (Throwable t) {
-                                    t.printStackTrace();
-                                }
-                            }
-                        } catch (ClassNotFoundException cnf) {
-                            // Pixelmon BattleRegistry not present on compile path -> nothing to do
-                        } catch (Throwable t) {
-                            t.printStackTrace();
-                        }
-                    } catch (Throwable t) {
-                        t.printStackTrace();
-                    }
-                } // end for
-            };
-
-            // Schedule on server/main thread via common methods (execute/submit/addScheduledTask)
-            boolean scheduled = false;
-            try {
-                Method exec = server.getClass().getMethod("execute", Runnable.class);
-                exec.invoke(server, endBattlesTask);
-                scheduled = true;
-            } catch (Throwable ignored) {}
 
-            if (!scheduled) {
-                try {
-                    Method submit = server.getClass().getMethod("submit", Runnable.class);
-                    submit.invoke(server, endBattlesTask);
-                    scheduled = true;
-                } catch (Throwable ignored) {}
+            // seal the pool first: hits still landing (a timeout racing the last turns) no longer count,
+            // and the total read here is the final one
+            RaidBossState pool = getBossPool();
+            final long finalDamage = pool != null ? pool.getFinalDamage() : damageTracker.snapshot().getTotal();
+            final long capacity = pool != null ? pool.getHpPool() : 0L;
+            if (pool != null) {
+                try { bossBar.update(finalDamage, capacity); } catch (Throwable ignored) {}
             }
+            System.out.println(String.format("[PixelmonRaid] Raid #%d %s: %d of %d HP dealt.",
+                    raidId, victory ? "won" : "lost", finalDamage, capacity));
 
-            if (!scheduled) {
-                try {
-                    Method add = server.getClass().getMethod("addScheduledTask", Runnable.class);
-                    add.invoke(server, endBattlesTask);
-                    scheduled = true;
-                } catch (Throwable ignored) {}
-            }
+            scheduleEndBattles(playerSnapshot);
 
-            if (!scheduled) {
-                // last resort: run inline
-                endBattlesTask.run();
-            }
+            recordLifetimeResults(victory);
 
             // Now reward distribution / notifications / despawn
             if (victory) {
                 try {
-                    // announce leaderboard top players
-                    try {
-                        List<Map.Entry<java.util.UUID, Long>> top = RaidLeaderboard.top(5);
-                        if (!top.isEmpty()) {
-                            serverWorld.getPlayers(p -> true).forEach(p -> p.sendMessage(new StringTextComponent("Raid - Top players:"), p.getUUID()));
-                            int rank = 1;
-                            for (Map.Entry<java.util.UUID, Long> ent : top) {
-                                try {
-                                    ServerPlayerEntity sp = server.getPlayerList().getPlayer(ent.getKey());
-                                    String name = (sp != null) ? sp.getName().getString() : ent.getKey().toString();
-                                    serverWorld.getPlayers(p -> true).forEach(pl -> pl.sendMessage(new StringTextComponent("#" + rank + " " + name + " - " + ent.getValue() + " dmg"), pl.getUUID()));
-                                } catch (Throwable ignored) {}
-                                rank++;
-                            }
-                        }
-                    } catch (Throwable t) { t.printStackTrace(); }
-
+                    // leaderboard is announced by RaidRewardHandler from the shared render cache
                     if (markRewardsDistributedIfNot()) {
                         RaidRewardHandler.distributeRewards(this);
                     }
                 } catch (Throwable t) { t.printStackTrace(); }
             } else {
                 try {
-                    serverWorld.getPlayers(p -> true).forEach(p -> p.sendMessage(new StringTextComponent("Raid ended — boss survived."), p.getUUID()));
+                    final String msg = capacity > 0L
+                            ? String.format("Raid ended — boss survived with %.1f%% HP left (%d of %d dealt).",
+                                    100.0 * Math.max(0L, capacity - finalDamage) / capacity, finalDamage, capacity)
+                            : "Raid ended — boss survived.";
+                    serverWorld.getPlayers(p -> true).forEach(p -> p.sendMessage(new StringTextComponent(msg), p.getUUID()));
                 } catch (Throwable ignored) {}
             }
 
@@ -0,0 +1,174 @@
+package com.example.PixelmonRaid;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.util.RegistryKey;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.server.ServerWorld;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * All raid sessions on the server; any number of arenas per world.
+ *  - sessions are grouped by dimension key, so the registry never holds a ServerWorld itself
+ *  - a world's sessions (and their player/boss bindings) are dropped when that world unloads
+ *  - O(1) lookup of the owning session from a boss entity (UUID) or a player UUID
+ *
+ * The default arena at (0, 80, 0) is created on first use so the auto-raid cycle keeps working; it is the only
+ * session that starts raids by itself. Other arenas (/startraid) are removed once their raid completes.
+ * Server thread only.
+ */
+@Mod.EventBusSubscriber(modid = PixelmonRaidMod.MODID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class RaidSessionRegistry {
+    private RaidSessionRegistry() {}
+
+    public static final BlockPos DEFAULT_CENTER = new BlockPos(0, 80, 0);
+
+    private static final Map<RegistryKey<World>, ArrayList<RaidSession>> BY_DIMENSION = new HashMap<>();
+    private static final Map<UUID, RaidSession> BY_PLAYER = new HashMap<>();
+    private static final Map<UUID, RaidSession> BY_BOSS = new HashMap<>();
+
+    /** Create a new session (arena) centered at the given position. */
+    public static RaidSession create(ServerWorld world, BlockPos center) {
+        RaidSession session = new RaidSession(world, center.immutable());
+        BY_DIMENSION.computeIfAbsent(world.dimension(), k -> new ArrayList<>()).add(session);
+        return session;
+    }
+
+    /** The world's default session (its first one), created at DEFAULT_CENTER when the world has none. */
+    public static RaidSession getDefault(ServerWorld world) {
+        List<RaidSession> list = BY_DIMENSION.get(world.dimension());
+        if (list != null && !list.isEmpty()) return list.get(0);
+        return create(world, DEFAULT_CENTER);
+    }
+
+    /** True for the world's default session, the only one that starts raids on its own. */
+    public static boolean isDefault(RaidSession session) {
+        List<RaidSession> list = BY_DIMENSION.get(session.getWorld().dimension());
+        return list != null && !list.isEmpty() && list.get(0) == session;
+    }
+
+    /** The session centered exactly at pos, created when there is none. */
+    public static RaidSession getOrCreateAt(ServerWorld world, BlockPos center) {
+        List<RaidSession> list = sessions(world);
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i).getCenter().equals(center)) return list.get(i);
+        }
+        return create(world, center);
+    }
+
+    /**
+     * Sessions in the given world. Returns the live backing list (do not modify) or an empty list;
+     * iterate by index.
+     */
+    public static List<RaidSession> sessions(World world) {
+        if (world == null) return Collections.emptyList();
+        List<RaidSession> list = BY_DIMENSION.get(world.dimension());
+        return list != null ? list : Collections.<RaidSession>emptyList();
+    }
+
+    /** The session owning this boss entity, or null. */
+    public static RaidSession forBoss(Entity boss) {
+        return boss == null ? null : BY_BOSS.get(boss.getUUID());
+    }
+
+    /** The session the player has joined, or null. */
+    public static RaidSession forPlayer(UUID playerId) {
+        return playerId == null ? null : BY_PLAYER.get(playerId);
+    }
+
+    /**
+     * Session to act on for a command source: the entity's joined session, else the session
+     * nearest to it in this world, else the world's default session.
+     */
+    public static RaidSession sessionFor(ServerWorld world, Entity source) {
+        if (source != null) {
+            RaidSession joined = BY_PLAYER.get(source.getUUID());
+            if (joined != null && joined.getWorld() == world) return joined;
+            RaidSession nearest = nearest(world, source.blockPosition());
+            if (nearest != null) return nearest;
+        }
+        return getDefault(world);
+    }
+
+    /** Session in the world whose center is closest to pos, or null when the world has none. */
+    public static RaidSession nearest(ServerWorld world, BlockPos pos) {
+        List<RaidSession> list = sessions(world);
+        RaidSession best = null;
+        double bestSq = Double.MAX_VALUE;
+        for (int i = 0; i < list.size(); i++) {
+            RaidSession s = list.get(i);
+            double d = s.getCenter().distSqr(pos);
+            if (d < bestSq) {
+                bestSq = d;
+                best = s;
+            }
+        }
+        return best;
+    }
+
+    /** Remove a session and its bindings. */
+    public static void remove(RaidSession session) {
+        if (session == null) return;
+        List<RaidSession> list = BY_DIMENSION.get(session.getWorld().dimension());
+        if (list != null) {
+            list.remove(session);
+            if (list.isEmpty()) BY_DIMENSION.remove(session.getWorld().dimension());
+        }
+        release(session);
+    }
+
+    // --- bindings maintained by RaidSession ---
+
+    /** Bind the player to the session; false when they already belong to another session. */
+    static boolean bindPlayer(UUID playerId, RaidSession session) {
+        RaidSession current = BY_PLAYER.get(playerId);
+        if (current != null && current != session) return false;
+        BY_PLAYER.put(playerId, session);
+        return true;
+    }
+
+    static void unbindPlayer(UUID playerId, RaidSession session) {
+        BY_PLAYER.remove(playerId, session);
+    }
+
+    static void bindBoss(UUID bossId, RaidSession session) {
+        BY_BOSS.put(bossId, session);
+    }
+
+    static void unbindBoss(UUID bossId, RaidSession session) {
+        BY_BOSS.remove(bossId, session);
+    }
+
+    /** A boss loaded from disk with no owning session (e.g. after a restart) joins the world's default session. */
+    static void adoptIfOrphan(Entity boss) {
+        if (boss == null || BY_BOSS.containsKey(boss.getUUID())) return;
+        if (!(boss.level instanceof ServerWorld)) return;
+        getDefault((ServerWorld) boss.level).addBossEntityUUID(boss.getUUID());
+    }
+
+    private static void release(RaidSession session) {
+        for (UUID id : session.getPlayers()) BY_PLAYER.remove(id, session);
+        for (UUID id : session.getBossEntityUUIDs()) BY_BOSS.remove(id, session);
+        // nobody keeps watching a vanilla bar nothing will update again
+        session.getBossBar().reset();
+    }
+
+    @SubscribeEvent
+    public static void onWorldUnload(WorldEvent.Unload evt) {
+        if (!(evt.getWorld() instanceof ServerWorld)) return;
+        List<RaidSession> list = BY_DIMENSION.remove(((ServerWorld) evt.getWorld()).dimension());
+        if (list == null) return;
+        for (RaidSession session : list) {
+            try { release(session); } catch (Throwable ignored) {}
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.PixelmonRaid;
+
+import com.pixelmonmod.pixelmon.entities.pixelmon.PixelmonEntity;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.server.ServerWorld;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.event.server.FMLServerStoppingEvent;
+import net.minecraftforge.fml.server.ServerLifecycleHooks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Splits a raid's roster into battle shards: up to shardSize players share one Pixelmon battle controller
+ * with its own boss participant, and every shard feeds the session's single HP pool, damage ledger and boss bar.
+ *  - players are assigned when their battle join is requested, so a roster requested together fills its
+ *    shards before the first one starts; a shard whose battle is running takes nobody else
+ *  - a shard's battle counts as running while one of its members is in a battle; once none is, the shard reopens
+ *    and keeps its boss, so a player who fled or lost rejoins it (or another open shard) instead of a new one
+ *  - shard 0 fights the session's primary boss; each further shard gets its own boss entity
+ *    (RaidSpawner.spawnShardBoss) whose damage RaidDamageHandler books against the primary's pool
+ *  - the shard size grows past the configured shardSize when the measured cost of one battle controller
+ *    says the roster would not fit in shardTickBudgetMillis at that size. The cost is the server's average
+ *    tick time above its raid-free baseline, divided by the running controllers (rechecked before every
+ *    sample), smoothed over a few seconds
+ *
+ * Server thread only.
+ */
+@Mod.EventBusSubscriber(modid = PixelmonRaidMod.MODID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class RaidShards {
+    public static final int MAX_SHARD_SIZE = 16;
+
+    private static final int SAMPLE_INTERVAL_TICKS = 20;
+    private static final double SMOOTHING = 0.2;
+
+    /** One battle controller's worth of players. */
+    public static final class Shard {
+        final int index;
+        final List<UUID> members = new ArrayList<>();
+        UUID bossId;
+        boolean started;
+
+        Shard(int index) {
+            this.index = index;
+        }
+
+        public int getIndex() { return index; }
+        public int size() { return members.size(); }
+        public boolean isStarted() { return started; }
+    }
+
+    private final RaidSession session;
+    private final List<Shard> shards = new ArrayList<>();
+    private final Map<UUID, Shard> byPlayer = new HashMap<>();
+
+    // cost model, shared by every session on the server
+    private static int runningControllers;
+    private static double baselineTickMillis = -1.0;
+    private static double controllerMillis = -1.0;
+    private static long sampleTicks;
+
+    RaidShards(RaidSession session) {
+        this.session = session;
+    }
+
+    /**
+     * The player's shard. A player whose shard's battle has ended keeps that shard (it reopens); one without a
+     * shard, or whose shard is still fighting without them (they were offline, or fled), is put into the first
+     * open shard, and only when none has room into a new one.
+     */
+    public Shard assign(UUID playerId) {
+        Shard current = byPlayer.get(playerId);
+        if (current != null && !isRunning(current)) return current;
+        if (current != null) current.members.remove(playerId);
+
+        int size = targetSize(session.getPlayers().size());
+        Shard open = null;
+        for (Shard s : shards) {
+            if (!isRunning(s) && s.members.size() < size) { open = s; break; }
+        }
+        if (open == null) {
+            open = new Shard(shards.size());
+            shards.add(open);
+        }
+        open.members.add(playerId);
+        byPlayer.put(playerId, open);
+        return open;
+    }
+
+    /**
+     * Start the shard's battle with each member who is online, still in the raid and not already battling.
+     * Returns true when the shard is settled (started now or earlier, or nobody is left to start it for).
+     */
+    public boolean start(MinecraftServer server, Shard shard) {
+        if (shard.started) return true;
+        List<ServerPlayerEntity> ready = new ArrayList<>(shard.members.size());
+        for (UUID id : shard.members) {
+            if (!session.getPlayers().contains(id)) continue;
+            ServerPlayerEntity sp = server.getPlayerList().getPlayer(id);
+            if (sp == null) continue;
+            try { if (PixelmonBattleBridge.getBattle(sp) != null) continue; } catch (Throwable ignored) {}
+            ready.add(sp);
+        }
+        if (ready.isEmpty()) return true;
+
+        PixelmonEntity boss = bossFor(shard);
+        if (boss == null || !PixelmonBattleBridge.isAvailable()) return false;
+        if (!PixelmonBattleBridge.startBattle(ready, boss)) return false;
+        shard.started = true;
+        runningControllers++;
+        return true;
+    }
+
+    /**
+     * Whether the shard's battle is still going: one of its members is online and in a battle. When none is,
+     * the battle has ended (won, lost or fled): the shard stops counting as a running controller and reopens,
+     * dropping members who left the raid or went offline so they do not hold its places.
+     */
+    private boolean isRunning(Shard shard) {
+        if (!shard.started) return false;
+        MinecraftServer server = session.getWorld().getServer();
+        if (server == null) return true;
+        for (UUID id : shard.members) {
+            ServerPlayerEntity sp = server.getPlayerList().getPlayer(id);
+            try { if (sp != null && PixelmonBattleBridge.getBattle(sp) != null) return true; } catch (Throwable ignored) {}
+        }
+        shard.started = false;
+        runningControllers = Math.max(0, runningControllers - 1);
+        for (int i = shard.members.size() - 1; i >= 0; i--) {
+            UUID id = shard.members.get(i);
+            if (session.getPlayers().contains(id) && server.getPlayerList().getPlayer(id) != null) continue;
+            shard.members.remove(i);
+            byPlayer.remove(id, shard);
+        }
+        return false;
+    }
+
+    /** Recheck every started shard, so ended battles stop counting as running controllers. */
+    void refresh() {
+        for (Shard s : shards) isRunning(s);
+    }
+
+    private PixelmonEntity bossFor(Shard shard) {
+        if (shard.index == 0) return session.getPrimaryBoss();
+        if (shard.bossId != null) return RaidBossRegistry.get(shard.bossId); // unloaded: wait, never spawn a twin
+        PixelmonEntity boss = RaidSpawner.spawnShardBoss(session);
+        if (boss != null) shard.bossId = boss.getUUID();
+        return boss;
+    }
+
+    /** Forget every shard; called when the raid's battles end. */
+    void clear() {
+        for (Shard s : shards) {
+            if (s.started) runningControllers = Math.max(0, runningControllers - 1);
+        }
+        shards.clear();
+        byPlayer.clear();
+    }
+
+    public int count() { return shards.size(); }
+
+    /** Players per shard for a roster of the given size (configured size, grown when over the tick budget). */
+    static int targetSize(int roster) {
+        PixelmonRaidConfig.Snapshot cfg = PixelmonRaidConfig.current();
+        int size = cfg.getShardSize();
+        if (controllerMillis <= 0.0 || roster <= size) return size;
+        int affordable = Math.max(1, (int) (cfg.getShardTickBudgetMillis() / controllerMillis));
+        int needed = (roster + affordable - 1) / affordable;
+        return Math.min(MAX_SHARD_SIZE, Math.max(size, needed));
+    }
+
+    /** Smoothed tick cost of one running shard battle in ms, or -1 before anything was measured. */
+    public static double measuredControllerMillis() { return controllerMillis; }
+
+    public static int runningControllers() { return runningControllers; }
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event == null || event.phase != TickEvent.Phase.END) return;
+        if (++sampleTicks % SAMPLE_INTERVAL_TICKS != 0) return;
+        MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+        if (server == null) return;
+        // count only battles still running, not every shard started this raid
+        for (ServerWorld world : server.getAllLevels()) {
+            List<RaidSession> sessions = RaidSessionRegistry.sessions(world);
+            for (int i = 0; i < sessions.size(); i++) {
+                try { sessions.get(i).getShards().refresh(); } catch (Throwable t) { t.printStackTrace(); }
+            }
+        }
+
+        double tick = server.getAverageTickTime();
+        if (runningControllers == 0) {
+            baselineTickMillis = baselineTickMillis < 0.0 ? tick : baselineTickMillis + SMOOTHING * (tick - baselineTickMillis);
+        } else if (baselineTickMillis >= 0.0) {
+            double perController = Math.max(0.0, tick - baselineTickMillis) / runningControllers;
+            controllerMillis = controllerMillis < 0.0 ? perController : controllerMillis + SMOOTHING * (perController - controllerMillis);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(FMLServerStoppingEvent evt) {
+        runningControllers = 0;
+        baselineTickMillis = -1.0;
+        controllerMillis = -1.0;
+        sampleTicks = 0L;
+    }
+}
@@ -6,7 +6,6 @@ import com.pixelmonmod.pixelmon.api.pokemon.species.Species;
 import com.pixelmonmod.pixelmon.api.registries.PixelmonSpecies;
 import com.pixelmonmod.pixelmon.entities.pixelmon.PixelmonEntity;
 import com.pixelmonmod.api.registry.RegistryValue;
-import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.server.ServerWorld;
 import net.minecraft.entity.player.PlayerEntity;
@@ -24,10 +23,9 @@ import java.util.*;
  */
 public class RaidSpawner {
 
-    private static final Map<ServerWorld, RaidSession> SESSIONS = new HashMap<>();
-
+    /** The world's default session; other arenas are reached through RaidSessionRegistry. */
     public static RaidSession getSession(ServerWorld world) {
-        return SESSIONS.computeIfAbsent(world, w -> new RaidSession(w, new BlockPos(0, 80, 0)));
+        return RaidSessionRegistry.getDefault(world);
     }
 
     /**
@@ -35,7 +33,23 @@ public class RaidSpawner {
      * Will try a handful of Pixelmon API calls reflectively to maximize compatibility.
      */
     public static void spawnBoss(RaidSession session) {
-        if (session == null) return;
+        spawn(session, 0);
+    }
+
+    /**
+     * Spawn an extra boss entity for a battle shard (see RaidShards). It carries the same pool size as the
+     * session's primary boss, but damage dealt to it is booked against the primary's pool.
+     */
+    public static PixelmonEntity spawnShardBoss(RaidSession session) {
+        if (session == null) return null;
+        RaidBossState pool = session.getBossPool();
+        if (pool == null) return null; // no primary boss to share with
+        return spawn(session, pool.getHpPool());
+    }
+
+    /** sharedPool > 0: a shard boss with that pool size; otherwise the pool is computed from the config. */
+    private static PixelmonEntity spawn(RaidSession session, int sharedPool) {
+        if (session == null) return null;
         ServerWorld world = session.getWorld();
         BlockPos pos = session.getCenter();
 
@@ -45,7 +59,7 @@ public class RaidSpawner {
             Optional<RegistryValue<Species>> maybe = PixelmonSpecies.get(speciesName);
             if (!maybe.isPresent()) {
                 System.err.println("[PixelmonRaid] Pixelmon species not found: " + speciesName);
-                return;
+                return null;
             }
             Species spec = maybe.get().getValueUnsafe();
 
@@ -56,7 +70,7 @@ public class RaidSpawner {
             } catch (Throwable t) {
                 t.printStackTrace();
                 System.err.println("[PixelmonRaid] Failed to build Pokemon for " + speciesName);
-                return;
+                return null;
             }
 
             // Choose an anchor player (needed by some spawn APIs). Prefer any online server player.
@@ -167,7 +181,7 @@ public class RaidSpawner {
 
             if (entity == null) {
                 System.err.println("[PixelmonRaid] Could not create Pixelmon entity instance for " + speciesName);
-                return;
+                return null;
             }
 
             // Position & persistent data
@@ -177,24 +191,26 @@ public class RaidSpawner {
             try { entity.setPos(px, py, pz); } catch (Throwable ignored) {}
 
             try {
-                CompoundNBT tag = entity.getPersistentData();
-                if (tag == null) tag = new CompoundNBT();
-                tag.putBoolean("pixelmonraid_boss", true);
-
                 int baseHp = 100;
                 try {
                     if (entity.getPokemon() != null) baseHp = Math.max(1, entity.getPokemon().getHealth());
                 } catch (Throwable ignored) {}
 
-                PixelmonRaidConfig cfg = PixelmonRaidConfig.getInstance();
+                PixelmonRaidConfig.Snapshot cfg = PixelmonRaidConfig.current();
                 double poolD = baseHp * cfg.getHpMultiplier() * cfg.getPoolMultiplier();
-                int pool = Math.max(1, (int) Math.round(poolD));
+                int pool = sharedPool > 0 ? sharedPool : Math.max(1, (int) Math.round(poolD));
 
-                tag.putInt("pixelmonraid_hp_pool", pool);
-                tag.putInt("pixelmonraid_accumulated_damage", 0);
-                tag.putInt("pixelmonraid_phase", 0);
+                RaidBossState state = RaidBossCapability.get(entity);
+                if (state != null) {
+                    state.init(pool);
+                    // phase fractions become integer damage cut-offs now, not per hit
+                    state.setPhaseThresholds(cfg.getPhaseThresholds());
+                }
             } catch (Throwable ignored) {}
 
+            // Bind to the session before the entity joins the world, so the join hook sees an owned boss
+            try { session.addBossEntityUUID(entity.getUUID()); } catch (Throwable ignored) {}
+
             // Add to world (try reliably)
             boolean added = false;
             try {
@@ -224,35 +240,30 @@ public class RaidSpawner {
             } catch (Throwable ignored) {}
 
             try {
-                UUID id = entity.getUUID();
-                session.addBossEntityUUID(id);
+                RaidBossRegistry.register(entity);
             } catch (Throwable ignored) {}
 
-            System.out.println("[PixelmonRaid] Spawned raid boss '" + speciesName + "' at " + pos + " (pool set).");
+            System.out.println("[PixelmonRaid] Spawned raid " + (sharedPool > 0 ? "shard boss '" : "boss '") + speciesName + "' at " + pos + " (pool set).");
+            return entity;
         } catch (Throwable t) {
             t.printStackTrace();
+            return null;
         }
     }
 
+    /** Kept for older callers; classification lives in RaidBossRegistry. */
     public static boolean isRaidBoss(PixelmonEntity e) {
-        if (e == null) return false;
-        try {
-            if (e.getPersistentData() != null && e.getPersistentData().getBoolean("pixelmonraid_boss")) return true;
-        } catch (Throwable ignored) {}
-        try {
-            Pokemon pokemon = e.getPokemon();
-            return pokemon != null && pokemon.getSpecies() != null && "zacian".equalsIgnoreCase(pokemon.getSpecies().getName());
-        } catch (Throwable t) { return false; }
+        return RaidBossRegistry.isRaidBoss(e);
     }
 
     public static void despawnBosses(RaidSession session) {
         if (session == null) return;
-        ServerWorld world = session.getWorld();
         for (UUID id : session.getBossEntityUUIDs()) {
             try {
-                world.getEntities().filter(e -> e.getUUID().equals(id)).findFirst().ifPresent(e -> {
-                    try { e.remove(); } catch (Throwable t) { t.printStackTrace(); }
-                });
+                PixelmonEntity e = RaidBossRegistry.get(id);
+                if (e == null) continue;
+                try { e.remove(); } catch (Throwable t) { t.printStackTrace(); }
+                RaidBossRegistry.unregister(e);
             } catch (Throwable ignored) {}
         }
         session.clearBossEntities();
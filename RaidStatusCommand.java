@@ -3,15 +3,20 @@ package com.example.PixelmonRaid;
 import com.mojang.brigadier.CommandDispatcher;
 import net.minecraft.command.CommandSource;
 import net.minecraft.command.Commands;
+import net.minecraft.util.text.ITextComponent;
 import net.minecraft.util.text.StringTextComponent;
 import net.minecraft.world.server.ServerWorld;
 
+import java.util.List;
+
 public class RaidStatusCommand {
     public static void register(CommandDispatcher<CommandSource> dispatcher) {
         dispatcher.register(Commands.literal("raidstatus")
+                .then(Commands.literal("lifetime").executes(ctx -> showLifetime(ctx.getSource(), false)))
+                .then(Commands.literal("season").executes(ctx -> showLifetime(ctx.getSource(), true)))
                 .executes(ctx -> {
                     ServerWorld world = (ServerWorld) ctx.getSource().getLevel();
-                    RaidSession session = RaidSpawner.getSession(world);
+                    RaidSession session = RaidSessionRegistry.sessionFor(world, ctx.getSource().getEntity());
                     if (session == null) {
                         ctx.getSource().sendSuccess(new StringTextComponent("No raid session for this world."), false);
                         return 1;
@@ -27,7 +32,7 @@ public class RaidStatusCommand {
                                 (minutes > 0 ? minutes + "m " : "") +
                                 remainingSeconds + "s"), false);
                     } else if (s == RaidSession.State.IN_BATTLE) {
-                        long start = RaidState.getBattleStartTick();
+                        long start = session.getBattleStartTick();
                         long elapsed = world.getGameTime() - start;
                         long durationTicks = 20L * PixelmonRaidConfig.getInstance().getDefaultRaidDurationSeconds();
                         long remaining = Math.max(0, durationTicks - elapsed);
@@ -36,10 +41,42 @@ public class RaidStatusCommand {
                         long secondsPart = seconds % 60;
                         ctx.getSource().sendSuccess(new StringTextComponent("Raid in progress — time left: " +
                                 (minutes > 0 ? minutes + "m " : "") + secondsPart + "s"), false);
+                        double perBattle = RaidShards.measuredControllerMillis();
+                        ctx.getSource().sendSuccess(new StringTextComponent("Battle shards: " + session.getShards().count() +
+                                " (up to " + RaidShards.targetSize(session.getPlayers().size()) + " players each" +
+                                (perBattle >= 0 ? String.format(", ~%.2f ms/tick per battle)", perBattle) : ")")), false);
+                        ctx.getSource().sendSuccess(new StringTextComponent(String.format("Boss bar: %d packets (%.1f KiB)",
+                                BossBarBroadcaster.packetsSent(), BossBarBroadcaster.bytesSent() / 1024.0)), false);
+                        // current standings, shared with the end-of-raid broadcast (rendered once per change)
+                        for (ITextComponent line : session.getLeaderboard().renderComponents(world.getServer())) {
+                            ctx.getSource().sendSuccess(line, false);
+                        }
                     } else {
                         ctx.getSource().sendSuccess(new StringTextComponent("No raid starting right now."), false);
                     }
                     return 1;
                 }));
     }
+
+    /** Persistent standings (all-time or current season), read from the mapped leaderboard snapshot. */
+    private static int showLifetime(CommandSource source, boolean seasonal) {
+        LifetimeLeaderboard board = LifetimeLeaderboard.getInstance();
+        List<LifetimeLeaderboard.Standing> top = board.top(RaidLeaderboard.RENDER_SIZE, seasonal);
+        if (top.isEmpty()) {
+            source.sendSuccess(new StringTextComponent(seasonal
+                    ? "No raids recorded this season yet." : "No raids recorded yet."), false);
+            return 1;
+        }
+        source.sendSuccess(new StringTextComponent(seasonal
+                ? "§6===== §eSeason " + board.getSeason() + " Leaderboard §6====="
+                : "§6===== §eAll-Time Raid Leaderboard §6====="), false);
+        int rank = 1;
+        for (LifetimeLeaderboard.Standing st : top) {
+            String name = LifetimeLeaderboard.displayName(source.getServer(), st.id);
+            source.sendSuccess(new StringTextComponent(String.format("§b#%d §f%s §7— §c%d dmg §7(%d raids, %d wins)",
+                    rank++, name, st.damage, st.raids, st.wins)), false);
+        }
+        source.sendSuccess(new StringTextComponent("§6==============================="), false);
+        return 1;
+    }
 }
@@ -0,0 +1,109 @@
+package com.example.PixelmonRaid;
+
+import net.minecraft.item.ItemStack;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * What one raid hands out, worked out once by RewardAllocator and then only read: by the inventory hand-out and
+ * reward screen (RaidRewardHandler.applyPlan), by the chat summary, and by anything that wants to store or
+ * replay a raid's rewards. Immutable once built (the loot stacks are never handed out directly), so any
+ * thread may read it.
+ */
+public final class RewardAllocation {
+
+    /** One player's share, tier and rolled rewards. */
+    public static final class Entry {
+        private final UUID player;
+        private final long damage;
+        private final double share;
+        private final char tier;
+        private final String[] poolKeys;
+        private final int[] hits;
+        private final List<ItemStack> loot;
+        private final int[] pityGain;
+        private final boolean[] pityReset;
+
+        Entry(UUID player, long damage, double share, char tier, String[] poolKeys, int[] hits,
+              List<ItemStack> loot, int[] pityGain, boolean[] pityReset) {
+            this.player = player;
+            this.damage = damage;
+            this.share = share;
+            this.tier = tier;
+            this.poolKeys = poolKeys;
+            this.hits = hits;
+            this.loot = Collections.unmodifiableList(loot);
+            this.pityGain = pityGain;
+            this.pityReset = pityReset;
+        }
+
+        public UUID getPlayer() { return player; }
+        public long getDamage() { return damage; }
+        /** Fraction 0..1 of the raid's total damage. */
+        public double getShare() { return share; }
+        /** 'A', 'B' or 'C'. */
+        public char getTier() { return tier; }
+        public int poolCount() { return poolKeys.length; }
+        public String poolKeyAt(int i) { return poolKeys[i]; }
+        /**
+         * Pool i's pity counter once this raid's rolls are handed out, given the counter's value at hand-out time:
+         * the draws since the rare drop if one came up, else the current value plus this raid's draws.
+         */
+        public int pityAfter(int i, int current) { return pityReset[i] ? pityGain[i] : current + pityGain[i]; }
+        public int hitCount() { return hits.length; }
+        /** Catalogue index of the i-th chance reward won. */
+        public int hitAt(int i) { return hits[i]; }
+        /** Pool loot templates; copy before giving them out. */
+        public List<ItemStack> getLoot() { return loot; }
+    }
+
+    private final long raidSeed;
+    private final long totalDamage;
+    private final RewardCatalogue catalogue;
+    private final Entry[] entries;
+    private final Map<UUID, Entry> byPlayer;
+    private final int[] tierCounts = new int[3];
+
+    RewardAllocation(long raidSeed, long totalDamage, RewardCatalogue catalogue, Entry[] entries) {
+        this.raidSeed = raidSeed;
+        this.totalDamage = totalDamage;
+        this.catalogue = catalogue;
+        this.entries = entries;
+        this.byPlayer = new HashMap<>(entries.length * 2);
+        for (Entry e : entries) {
+            byPlayer.put(e.player, e);
+            tierCounts[e.tier - 'A']++;
+        }
+    }
+
+    public long getRaidSeed() { return raidSeed; }
+    public long getTotalDamage() { return totalDamage; }
+    public RewardCatalogue getCatalogue() { return catalogue; }
+    public int size() { return entries.length; }
+    public Entry entryAt(int i) { return entries[i]; }
+
+    /** The player's entry, or null when they were not part of the raid. */
+    public Entry get(UUID player) {
+        return byPlayer.get(player);
+    }
+
+    public int tierCount(char tier) {
+        return tier >= 'A' && tier <= 'C' ? tierCounts[tier - 'A'] : 0;
+    }
+
+    /** Chat line telling one player their share and tier. */
+    public String summaryFor(UUID player) {
+        Entry e = byPlayer.get(player);
+        if (e == null) return null;
+        return String.format("§eYou dealt §c%d §edamage (§f%.1f%%§e of the raid) — reward tier §6%c", e.damage, e.share * 100.0, e.tier);
+    }
+
+    /** Chat line with the tier head-counts, for everyone. */
+    public String tierSummary() {
+        return "§6Reward tiers: §eA §f" + tierCounts[0] + " §7| §eB §f" + tierCounts[1] + " §7| §eC §f" + tierCounts[2];
+    }
+}
@@ -0,0 +1,309 @@
+package com.example.PixelmonRaid;
+
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.JsonToNBT;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Turns a finished raid into a RewardAllocation.
+ *  - one pass over the ledger snapshot indexes every player's damage; share and tier (tierA/tierB cutoffs)
+ *    then come from the snapshot total with no per-player search
+ *  - each player rolls the catalogue chances, the raid difficulty's pool and the pool of their tier
+ *  - every player rolls from their own SplittableRandom stream, split off the raid seed by their UUID: no generator
+ *    is shared, so rosters over rewardParallelThreshold roll on a fork/join pool without contention, and the
+ *    result is the same whichever thread rolls whom
+ *
+ * allocate() is a pure function of its Input: the raid seed (logged when the battle starts), the damage snapshot,
+ * the roster and its pity counters give back exactly the same allocation. RewardDispatcher saves every Input
+ * (saveInput) before allocating, catalogue and loot pools included, so a disputed reward is replayed with
+ * allocate(loadInput(file, cfg)) whatever the reward and loot config say today.
+ * The Input is captured on the server thread (it reads the players' pity counters); allocate() runs anywhere.
+ */
+final class RewardAllocator {
+    private RewardAllocator() {}
+
+    /** Players per fork/join leaf. */
+    private static final int CHUNK = 16;
+    /** Saved replay inputs kept; older ones are deleted. */
+    private static final int KEEP_INPUTS = 100;
+
+    private static ForkJoinPool pool;
+
+    /** Everything allocate() needs, copied off the server thread's live state. */
+    static final class Input {
+        final long raidSeed;
+        final DamageTracker.Snapshot damage;
+        final UUID[] roster;
+        final int[][] pity;            // per roster player: difficulty pool, then TIER_A, TIER_B, TIER_C
+        final String difficultyKey;
+        final DropSet difficultyPool;
+        final DropSet[] tierPools;     // A, B, C; entries may be null
+        final RewardCatalogue catalogue;
+        final double tierACutoff;
+        final double tierBCutoff;
+        final int parallelThreshold;
+
+        Input(long raidSeed, DamageTracker.Snapshot damage, UUID[] roster, int[][] pity, String difficultyKey,
+              DropSet difficultyPool, DropSet[] tierPools, RewardCatalogue catalogue, PixelmonRaidConfig.Snapshot cfg) {
+            this(raidSeed, damage, roster, pity, difficultyKey, difficultyPool, tierPools, catalogue,
+                    cfg.getTierACutoff(), cfg.getTierBCutoff(), cfg.getRewardParallelThreshold());
+        }
+
+        Input(long raidSeed, DamageTracker.Snapshot damage, UUID[] roster, int[][] pity, String difficultyKey,
+              DropSet difficultyPool, DropSet[] tierPools, RewardCatalogue catalogue,
+              double tierACutoff, double tierBCutoff, int parallelThreshold) {
+            this.raidSeed = raidSeed;
+            this.damage = damage;
+            this.roster = roster;
+            this.pity = pity;
+            this.difficultyKey = difficultyKey;
+            this.difficultyPool = difficultyPool;
+            this.tierPools = tierPools;
+            this.catalogue = catalogue;
+            this.tierACutoff = tierACutoff;
+            this.tierBCutoff = tierBCutoff;
+            this.parallelThreshold = parallelThreshold;
+        }
+    }
+
+    static RewardAllocation allocate(Input in) {
+        DamageTracker.Snapshot ledger = in.damage;
+        Map<UUID, Long> damage = new HashMap<>(ledger.size() * 2);
+        for (int i = 0; i < ledger.size(); i++) damage.put(ledger.idAt(i), ledger.damageAt(i));
+        long total = ledger.getTotal();
+
+        RewardAllocation.Entry[] out = new RewardAllocation.Entry[in.roster.length];
+        RollTask all = new RollTask(in, damage, total, out, 0, out.length);
+        if (out.length > in.parallelThreshold) pool().invoke(all);
+        else all.rollRange();
+        return new RewardAllocation(in.raidSeed, total, in.catalogue, out);
+    }
+
+    private static final class RollTask extends RecursiveAction {
+        private final Input in;
+        private final Map<UUID, Long> damage;
+        private final long total;
+        private final RewardAllocation.Entry[] out;
+        private final int lo;
+        private final int hi;
+
+        RollTask(Input in, Map<UUID, Long> damage, long total, RewardAllocation.Entry[] out, int lo, int hi) {
+            this.in = in;
+            this.damage = damage;
+            this.total = total;
+            this.out = out;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= CHUNK) {
+                rollRange();
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new RollTask(in, damage, total, out, lo, mid), new RollTask(in, damage, total, out, mid, hi));
+        }
+
+        void rollRange() {
+            for (int i = lo; i < hi; i++) out[i] = roll(in, i, damage, total);
+        }
+    }
+
+    private static RewardAllocation.Entry roll(Input in, int i, Map<UUID, Long> damage, long total) {
+        UUID player = in.roster[i];
+        Long dealt = damage.get(player);
+        long mine = dealt != null ? dealt : 0L;
+        double share = total > 0L ? (double) mine / (double) total : 0.0;
+        char tier = share >= in.tierACutoff && total > 0L ? 'A' : share >= in.tierBCutoff && total > 0L ? 'B' : 'C';
+
+        SplittableRandom rand = stream(in.raidSeed, player);
+        RewardCatalogue catalogue = in.catalogue;
+        int[] hits = new int[catalogue.size()];
+        int n = 0;
+        for (int c = 0; c < catalogue.size(); c++) {
+            if (rand.nextDouble() > catalogue.chanceAt(c)) continue;
+            hits[n++] = c;
+        }
+
+        int t = tier - 'A';
+        String[] keys = new String[]{in.difficultyKey, RaidLootTables.tierPool(tier)};
+        DropSet[] pools = new DropSet[]{in.difficultyPool, in.tierPools[t]};
+        int[] before = new int[]{in.pity[i][0], in.pity[i][1 + t]};
+        // recorded as a change (reset or not, draws since) so it applies to the counter as it is at hand-out time
+        int[] pityGain = new int[pools.length];
+        boolean[] pityReset = new boolean[pools.length];
+        List<ItemStack> loot = new ArrayList<>();
+        for (int p = 0; p < pools.length; p++) {
+            if (pools[p] == null) continue;
+            boolean[] rare = new boolean[1];
+            int after = pools[p].roll(rand, before[p], loot, rare);
+            pityReset[p] = rare[0];
+            pityGain[p] = rare[0] ? after : after - before[p];
+        }
+        return new RewardAllocation.Entry(player, mine, share, tier, keys, Arrays.copyOf(hits, n), loot, pityGain, pityReset);
+    }
+
+    /**
+     * The player's reward stream for a raid. Keyed by UUID rather than split off in roster order, so a player's
+     * rolls do not change with who else was in the raid or in which order they joined.
+     */
+    static SplittableRandom stream(long raidSeed, UUID player) {
+        return new SplittableRandom(playerSeed(raidSeed, player));
+    }
+
+    /** Per-player seed: the raid seed and the UUID pushed through a 64-bit mixer (SplitMix64 finaliser). */
+    static long playerSeed(long raidSeed, UUID player) {
+        long z = raidSeed ^ (player.getMostSignificantBits() * 0x9E3779B97F4A7C15L) ^ player.getLeastSignificantBits();
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Write the whole Input to dir/raid-<seed>.txt, one value group per line: seed, difficulty, tier cutoffs, the
+     * catalogue (item, count, chance), each loot pool as SNBT (DropSet.serializeNBT), the damage ledger and the
+     * roster with its pity counters. Prunes old files and returns this one.
+     */
+    static Path saveInput(Path dir, Input in) throws IOException {
+        Files.createDirectories(dir);
+        List<String> lines = new ArrayList<>(8 + in.catalogue.size() + in.damage.size() + in.roster.length);
+        lines.add("seed " + Long.toHexString(in.raidSeed));
+        lines.add("difficulty " + in.difficultyKey);
+        lines.add("tiers " + in.tierACutoff + " " + in.tierBCutoff);
+        for (int i = 0; i < in.catalogue.size(); i++) lines.add(rewardLine(in.catalogue, i));
+        if (in.difficultyPool != null) lines.add("pool difficulty " + in.difficultyPool.serializeNBT());
+        for (int t = 0; t < in.tierPools.length; t++) {
+            if (in.tierPools[t] != null) lines.add("pool " + (char) ('A' + t) + " " + in.tierPools[t].serializeNBT());
+        }
+        for (int i = 0; i < in.damage.size(); i++) lines.add("damage " + in.damage.idAt(i) + " " + in.damage.damageAt(i));
+        for (int i = 0; i < in.roster.length; i++) {
+            int[] p = in.pity[i];
+            lines.add("player " + in.roster[i] + " " + p[0] + " " + p[1] + " " + p[2] + " " + p[3]);
+        }
+        Path file = dir.resolve(String.format("raid-%016x.txt", in.raidSeed));
+        Files.write(file, lines, StandardCharsets.UTF_8);
+        prune(dir);
+        return file;
+    }
+
+    private static String rewardLine(RewardCatalogue catalogue, int i) {
+        return "reward " + catalogue.itemAt(i).getRegistryName() + " " + catalogue.templateAt(i).getCount() + " " + catalogue.chanceAt(i);
+    }
+
+    /**
+     * Read a saved Input back, catalogue and pools included. Refuses (IOException) when the saved catalogue or a
+     * pool no longer loads identically (an item was removed since), because the replay would silently differ.
+     */
+    static Input loadInput(Path file, PixelmonRaidConfig.Snapshot cfg) throws IOException {
+        long seed = 0L;
+        String difficulty = "NORMAL";
+        double tierA = cfg.getTierACutoff();
+        double tierB = cfg.getTierBCutoff();
+        List<String> rewardLines = new ArrayList<>();
+        List<RaidRewardsConfig.RewardEntry> rewards = new ArrayList<>();
+        DropSet difficultyPool = null;
+        DropSet[] tierPools = new DropSet[3];
+        List<UUID> ledgerIds = new ArrayList<>();
+        List<Long> ledgerDamage = new ArrayList<>();
+        List<UUID> roster = new ArrayList<>();
+        List<int[]> pity = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String[] f = line.trim().split(" ");
+            switch (f[0]) {
+                case "seed": seed = Long.parseUnsignedLong(f[1], 16); break;
+                case "difficulty": difficulty = f[1]; break;
+                case "tiers": tierA = Double.parseDouble(f[1]); tierB = Double.parseDouble(f[2]); break;
+                case "reward":
+                    rewardLines.add(line.trim());
+                    rewards.add(new RaidRewardsConfig.RewardEntry(f[1], Integer.parseInt(f[2]), Float.parseFloat(f[3])));
+                    break;
+                case "pool": {
+                    String[] kv = line.trim().split(" ", 3);
+                    DropSet pool = loadPool(file, kv[1], kv[2]);
+                    if ("difficulty".equals(kv[1])) difficultyPool = pool;
+                    else tierPools[kv[1].charAt(0) - 'A'] = pool;
+                    break;
+                }
+                case "damage": ledgerIds.add(UUID.fromString(f[1])); ledgerDamage.add(Long.parseLong(f[2])); break;
+                case "player":
+                    roster.add(UUID.fromString(f[1]));
+                    pity.add(new int[]{Integer.parseInt(f[2]), Integer.parseInt(f[3]), Integer.parseInt(f[4]), Integer.parseInt(f[5])});
+                    break;
+                default: break;
+            }
+        }
+        RewardCatalogue catalogue = RewardCatalogue.compile(rewards);
+        boolean same = catalogue.size() == rewardLines.size();
+        for (int i = 0; same && i < catalogue.size(); i++) same = rewardLines.get(i).equals(rewardLine(catalogue, i));
+        if (!same) throw new IOException(file + ": the saved reward catalogue no longer compiles identically");
+
+        long[] damage = new long[ledgerDamage.size()];
+        for (int i = 0; i < damage.length; i++) damage[i] = ledgerDamage.get(i);
+        return new Input(seed, DamageTracker.Snapshot.of(ledgerIds.toArray(new UUID[0]), damage), roster.toArray(new UUID[0]),
+                pity.toArray(new int[0][]), difficulty, difficultyPool, tierPools, catalogue,
+                tierA, tierB, cfg.getRewardParallelThreshold());
+    }
+
+    private static DropSet loadPool(Path file, String key, String snbt) throws IOException {
+        DropSet pool = new DropSet();
+        try {
+            pool.deserializeNBT(JsonToNBT.parseTag(snbt));
+        } catch (CommandSyntaxException e) {
+            throw new IOException(file + ": pool " + key + " is not valid SNBT", e);
+        }
+        if (!snbt.equals(pool.serializeNBT().toString())) {
+            throw new IOException(file + ": pool " + key + " no longer loads identically");
+        }
+        return pool;
+    }
+
+    private static void prune(Path dir) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "raid-*.txt")) {
+            for (Path p : ds) files.add(p);
+        }
+        if (files.size() <= KEEP_INPUTS) return;
+        Map<Path, Long> modified = new HashMap<>();
+        for (Path p : files) {
+            try { modified.put(p, Files.getLastModifiedTime(p).toMillis()); } catch (IOException e) { modified.put(p, 0L); }
+        }
+        files.sort((a, b) -> Long.compare(modified.get(a), modified.get(b)));
+        for (int i = 0; i < files.size() - KEEP_INPUTS; i++) {
+            try { Files.deleteIfExists(files.get(i)); } catch (IOException ignored) {}
+        }
+    }
+
+    private static synchronized ForkJoinPool pool() {
+        if (pool == null) {
+            int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+            ClassLoader loader = RewardAllocator.class.getClassLoader();
+            pool = new ForkJoinPool(threads, p -> {
+                ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+                t.setName("PixelmonRaid-RewardRoll-" + t.getPoolIndex());
+                t.setDaemon(true);
+                // mod classes (ItemStack copies, pools) must resolve through the mod loader, not the app loader
+                t.setContextClassLoader(loader);
+                return t;
+            }, null, false);
+        }
+        return pool;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.PixelmonRaid;
+
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.registries.ForgeRegistries;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The reward table compiled for distribution; immutable, so it can be shared with the reward worker.
+ *  - item names are resolved against the item registry once, at compile time
+ *  - counts and chances are clamped, and entries that can never drop are left out
+ *  - each entry has a template stack and a display label, so handing a reward out is a copy()
+ *
+ * Lines that cannot be used are reported once when the table is compiled, not on every raid.
+ */
+public final class RewardCatalogue {
+    public static final RewardCatalogue EMPTY = new RewardCatalogue(new Item[0], new float[0], new ItemStack[0], new String[0]);
+
+    private final Item[] items;
+    private final float[] chances;
+    private final ItemStack[] templates;
+    private final String[] labels;
+
+    private RewardCatalogue(Item[] items, float[] chances, ItemStack[] templates, String[] labels) {
+        this.items = items;
+        this.chances = chances;
+        this.templates = templates;
+        this.labels = labels;
+    }
+
+    /** Compile the given entries. Needs the item registry to be populated. */
+    public static RewardCatalogue compile(List<RaidRewardsConfig.RewardEntry> entries) {
+        if (entries == null || entries.isEmpty()) return EMPTY;
+        List<Item> items = new ArrayList<>(entries.size());
+        List<Float> chances = new ArrayList<>(entries.size());
+        List<ItemStack> templates = new ArrayList<>(entries.size());
+        List<String> labels = new ArrayList<>(entries.size());
+        int line = 0;
+        for (RaidRewardsConfig.RewardEntry re : entries) {
+            line++;
+            if (re == null || re.item == null || re.item.isEmpty()) {
+                System.err.println("[PixelmonRaid] Reward #" + line + ": missing item name, skipped.");
+                continue;
+            }
+            Item item;
+            try {
+                item = ForgeRegistries.ITEMS.getValue(new ResourceLocation(re.item));
+            } catch (Exception e) {
+                System.err.println("[PixelmonRaid] Reward #" + line + ": invalid item name '" + re.item + "', skipped.");
+                continue;
+            }
+            if (item == null || item == Items.AIR) {
+                System.err.println("[PixelmonRaid] Reward #" + line + ": unknown item '" + re.item + "', skipped.");
+                continue;
+            }
+            if (re.chance <= 0f) continue; // can never drop
+            ItemStack template = new ItemStack(item, Math.max(1, re.count));
+            items.add(item);
+            chances.add(Math.min(1f, re.chance));
+            templates.add(template);
+            labels.add(template.getCount() + "x " + template.getHoverName().getString());
+        }
+
+        int n = items.size();
+        float[] c = new float[n];
+        for (int i = 0; i < n; i++) c[i] = chances.get(i);
+        return new RewardCatalogue(items.toArray(new Item[0]), c, templates.toArray(new ItemStack[0]), labels.toArray(new String[0]));
+    }
+
+    public int size() { return items.length; }
+    public boolean isEmpty() { return items.length == 0; }
+    public Item itemAt(int index) { return items[index]; }
+    /** Drop chance in (0, 1]. */
+    public float chanceAt(int index) { return chances[index]; }
+    /** Shared template: never hand it out directly, copy() it. */
+    public ItemStack templateAt(int index) { return templates[index]; }
+    /** "count x name", as shown on the reward screen. */
+    public String labelAt(int index) { return labels[index]; }
+}
@@ -0,0 +1,143 @@
+package com.example.PixelmonRaid;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.storage.FolderName;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.event.server.FMLServerStoppingEvent;
+import net.minecraftforge.fml.loading.FMLPaths;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Two-stage reward delivery so a finished raid never pays for its reward table in one tick.
+ *  - stage 1 (worker thread): the allocation input is saved for replays (<world>/pixelmonraid/rewards), then
+ *    RewardAllocator rolls the whole roster (fork/join for large rosters) into a
+ *    RewardAllocation; the share/tier summary goes out on the next tick
+ *  - stage 2 (server thread): at END of each server tick, apply ready plans until the configured time budget is spent
+ *
+ * At least one plan is applied per tick so delivery always progresses. A plan for a player who is offline is
+ * held (rewards and pity counters untouched) and queued again when they log in. Plans still queued when the
+ * server stops are applied in full before shutdown; held ones are logged and dropped.
+ */
+@Mod.EventBusSubscriber(modid = PixelmonRaidMod.MODID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class RewardDispatcher {
+    private RewardDispatcher() {}
+
+    private static final ExecutorService WORKER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "PixelmonRaid-Rewards");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // plans computed by the worker, waiting for the server thread
+    private static final Queue<RaidRewardHandler.RewardPlan> READY = new ConcurrentLinkedQueue<>();
+    // plans for players who were offline when their turn came; server thread only
+    private static final Map<UUID, List<RaidRewardHandler.RewardPlan>> HELD = new HashMap<>();
+
+    /** Allocate the raid's rewards off-thread; the plans are applied over the following ticks. */
+    static void submit(MinecraftServer server, RewardAllocator.Input input) {
+        if (server == null || input == null || input.roster.length == 0) return;
+        Path replayDir = replayDir(server);
+        WORKER.execute(() -> {
+            // saved before rolling, so even a failed allocation can be replayed
+            String saved = "not saved";
+            try {
+                saved = RewardAllocator.saveInput(replayDir, input).toString();
+            } catch (Throwable t) {
+                System.err.println("[PixelmonRaid] Could not save reward replay input: " + t);
+            }
+            try {
+                RewardAllocation allocation = RewardAllocator.allocate(input);
+                System.out.println(String.format("[PixelmonRaid] Rewards allocated from seed %016x: %d players, %d total damage (replay input: %s)",
+                        allocation.getRaidSeed(), allocation.size(), allocation.getTotalDamage(), saved));
+                server.execute(() -> RaidRewardHandler.announce(server, allocation));
+                for (int i = 0; i < allocation.size(); i++) {
+                    READY.add(new RaidRewardHandler.RewardPlan(server, allocation, allocation.entryAt(i)));
+                }
+            } catch (Throwable t) {
+                t.printStackTrace();
+            }
+        });
+    }
+
+    /** <world>/pixelmonraid/rewards, where replay inputs are kept. */
+    private static Path replayDir(MinecraftServer server) {
+        Path root;
+        try {
+            root = server.getWorldPath(FolderName.ROOT);
+        } catch (Throwable t) {
+            root = FMLPaths.CONFIGDIR.get();
+        }
+        return root.resolve("pixelmonraid").resolve("rewards");
+    }
+
+    /** Number of plans waiting to be applied, including those held for offline players (for status output). */
+    public static int pending() {
+        int held = 0;
+        for (List<RaidRewardHandler.RewardPlan> plans : HELD.values()) held += plans.size();
+        return READY.size() + held;
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event == null || event.phase != TickEvent.Phase.END) return;
+        if (READY.isEmpty()) return;
+        long budgetNanos = PixelmonRaidConfig.current().getRewardApplyBudgetMicros() * 1000L;
+        long start = System.nanoTime();
+        RaidRewardHandler.RewardPlan plan;
+        while ((plan = READY.poll()) != null) {
+            try {
+                if (!RaidRewardHandler.applyPlan(plan)) {
+                    HELD.computeIfAbsent(plan.entry.getPlayer(), k -> new ArrayList<>()).add(plan);
+                }
+            } catch (Throwable t) {
+                t.printStackTrace();
+            }
+            if (System.nanoTime() - start >= budgetNanos) break;
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLogin(PlayerEvent.PlayerLoggedInEvent event) {
+        List<RaidRewardHandler.RewardPlan> held = HELD.remove(event.getPlayer().getUUID());
+        if (held != null) READY.addAll(held);
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(FMLServerStoppingEvent evt) {
+        // let the worker finish what it already started, then hand everything out
+        try {
+            WORKER.submit(() -> {}).get(5, TimeUnit.SECONDS);
+        } catch (Throwable t) {
+            System.err.println("[PixelmonRaid] Reward worker did not finish before shutdown: " + t);
+        }
+        RaidRewardHandler.RewardPlan plan;
+        while ((plan = READY.poll()) != null) {
+            try {
+                if (!RaidRewardHandler.applyPlan(plan)) {
+                    HELD.computeIfAbsent(plan.entry.getPlayer(), k -> new ArrayList<>()).add(plan);
+                }
+            } catch (Throwable t) {
+                t.printStackTrace();
+            }
+        }
+        for (Map.Entry<UUID, List<RaidRewardHandler.RewardPlan>> e : HELD.entrySet()) {
+            System.err.println("[PixelmonRaid] " + e.getValue().size() + " reward plan(s) for offline player "
+                    + e.getKey() + " dropped at shutdown (seed " + String.format("%016x", e.getValue().get(0).allocation.getRaidSeed()) + ")");
+        }
+        HELD.clear();
+    }
+}
@@ -5,6 +5,7 @@ import com.mojang.brigadier.arguments.StringArgumentType;
 import net.minecraft.command.CommandSource;
 import net.minecraft.command.Commands;
 import net.minecraft.util.text.StringTextComponent;
+import net.minecraft.world.server.ServerWorld;
 
 public class SetRaidDifficultyCommand {
 
@@ -21,7 +22,8 @@ public class SetRaidDifficultyCommand {
                             String input = StringArgumentType.getString(ctx, "level").toUpperCase();
                             try {
                                 RaidDifficulty diff = RaidDifficulty.valueOf(input);
-                                RaidState.setDifficulty(diff);
+                                ServerWorld world = ctx.getSource().getLevel();
+                                RaidSessionRegistry.sessionFor(world, ctx.getSource().getEntity()).setDifficulty(diff);
                                 ctx.getSource().sendSuccess(new StringTextComponent("Raid difficulty set to: " + diff), true);
                                 return 1;
                             } catch (IllegalArgumentException e) {
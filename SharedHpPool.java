@@ -0,0 +1,106 @@
+package com.example.PixelmonRaid;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A raid boss's HP pool that any number of threads can hit at once without losing damage.
+ *  - damage goes into striped counters (LongAdder): concurrent hits land in different cells instead of
+ *    fighting over one field, and nothing is read-modified-written
+ *  - the hit that takes the pool to zero wins one compareAndSet on the "crossed" flag, so victory fires
+ *    exactly once however many hits race past zero; hits after that are refused
+ *  - approximateDealt() is a lock-free sum for display (may miss hits still in flight); exactDealt() waits
+ *    for in-flight hits to land once the pool is sealed, so it is the final figure
+ *
+ * Sealing and the in-flight count share one word (gate): the top bit is the sealed flag, the rest counts hits
+ * between registering and landing. A hit registers with a compareAndSet that fails once the bit is set, so every
+ * hit is either refused or counted in the gate before the sealer reads it, and exactDealt() waits for those.
+ */
+public final class SharedHpPool {
+    // gate layout: sealed flag in the sign bit, in-flight hit count below it
+    private static final long SEALED = Long.MIN_VALUE;
+    private static final long IN_FLIGHT = Long.MAX_VALUE;
+
+    private final long capacity;
+    private final LongAdder dealt = new LongAdder();
+    private final AtomicLong gate = new AtomicLong();
+    private final AtomicBoolean crossed = new AtomicBoolean();
+
+    public SharedHpPool(long capacity) {
+        this.capacity = Math.max(1L, capacity);
+    }
+
+    /**
+     * A pool reloaded from a save, with its damage restored and nothing fired. A pool saved after crossing zero
+     * comes back crossed and sealed (its victory was already handed out); one saved at zero before any hit
+     * claimed the crossing hands victory to the next hit.
+     */
+    public static SharedHpPool restore(long capacity, long dealt, boolean crossed) {
+        SharedHpPool pool = new SharedHpPool(capacity);
+        if (dealt > 0L) pool.dealt.add(dealt);
+        if (crossed) {
+            pool.crossed.set(true);
+            pool.gate.set(SEALED);
+        }
+        return pool;
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Record damage. Returns true for exactly one caller over the pool's lifetime: the one whose hit
+     * took the pool to zero. Refused (false, not counted) once the pool is sealed.
+     */
+    public boolean add(long amount) {
+        if (amount <= 0) return false;
+        long g;
+        do {
+            g = gate.get();
+            if ((g & SEALED) != 0L) return false;
+        } while (!gate.compareAndSet(g, g + 1L));
+        try {
+            dealt.add(amount);
+            if (dealt.sum() < capacity) return false;
+        } finally {
+            gate.decrementAndGet();
+        }
+        if (!crossed.compareAndSet(false, true)) return false;
+        seal();
+        return true;
+    }
+
+    /** True once a hit has taken the pool to zero. */
+    public boolean isCrossed() {
+        return crossed.get();
+    }
+
+    /** True once the pool counts no more damage. */
+    public boolean isSealed() {
+        return (gate.get() & SEALED) != 0L;
+    }
+
+    /** Stop counting damage; the raid is over (victory seals automatically). */
+    public void seal() {
+        gate.updateAndGet(g -> g | SEALED);
+    }
+
+    /** Damage dealt so far without any coordination; for the boss bar. */
+    public long approximateDealt() {
+        return dealt.sum();
+    }
+
+    /** Seal the pool, wait for hits already in flight, and return the final damage total. */
+    public long exactDealt() {
+        seal();
+        while ((gate.get() & IN_FLIGHT) != 0L) Thread.yield();
+        return dealt.sum();
+    }
+
+    /** Remaining pool as 0..1, from the approximate total. */
+    public float percentLeft() {
+        return Math.max(0f, 1f - (float) ((double) dealt.sum() / capacity));
+    }
+}
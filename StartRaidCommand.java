@@ -15,22 +15,18 @@ public class StartRaidCommand {
             BlockPos pos = new BlockPos(src.getPosition());
             BlockPos spawnPos = pos.below().immutable();
 
-            RaidSession session = RaidSpawner.getSession(world);
+            // one arena per spawn position; several can run in the same world
+            RaidSession session = RaidSessionRegistry.getOrCreateAt(world, spawnPos);
 
             if (session.getState() == RaidSession.State.IN_BATTLE) {
                 src.sendFailure(new StringTextComponent("A raid is already in progress."));
                 return 0;
             }
 
-            session.setState(RaidSession.State.IN_BATTLE);
-            // Set the session center to the spawnPos so boss spawns at the desired spot
-            // (Note: if you want to override center, add a setter on RaidSession; currently center is final.)
-            // For now we rely on existing center; you can adapt the session center logic as needed.
+            // same start as the auto cycle: fresh ranking, shards, phases and seed before the boss spawns
+            session.startRaid(world.getGameTime());
 
-            RaidSpawner.spawnBoss(session);
-            RaidState.setBattleStartTick(world.getGameTime());
-
-            src.sendSuccess(new StringTextComponent("Raid boss spawned."), true);
+            src.sendSuccess(new StringTextComponent("Raid starting."), true);
             return 1;
         } catch (Throwable t) {
             t.printStackTrace();
@@ -15,7 +15,7 @@ public class StopRaidCommand {
                     try {
                         CommandSource src = ctx.getSource();
                         ServerWorld world = src.getLevel();
-                        RaidSession session = RaidSpawner.getSession(world);
+                        RaidSession session = RaidSessionRegistry.sessionFor(world, src.getEntity());
                         if (session == null) {
                             src.sendSuccess(new StringTextComponent("No raid session found."), false);
                             return 0;
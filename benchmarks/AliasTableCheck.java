@@ -0,0 +1,91 @@
+package com.example.PixelmonRaid.bench;
+
+import com.example.PixelmonRaid.AliasTable;
+
+import java.util.Random;
+
+/**
+ * Statistical check of AliasTable drop rates: draws millions of samples from several weight tables and
+ * compares observed counts with the configured weights (chi-square, plus a per-entry relative error bound).
+ * Needs nothing but AliasTable.java; exits with status 1 on any failure.
+ * Usage: AliasTableCheck [draws-per-table] [seed]
+ */
+public final class AliasTableCheck {
+    private AliasTableCheck() {}
+
+    public static void main(String[] args) {
+        int draws = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 20240611L;
+
+        double[][] tables = {
+                {1, 1, 1, 1},                       // uniform (the old DropSet.getRandomDrop)
+                {70, 20, 9, 1},                     // typical loot: common .. rare
+                {1000, 1, 0.5, 0.01},               // very skewed
+                {0, 3, 0, 1},                       // zero weights must never be drawn
+                linear(64),                         // large pool
+        };
+
+        long start = System.nanoTime();
+        boolean ok = true;
+        for (int t = 0; t < tables.length; t++) {
+            ok &= check("table " + t, tables[t], draws, new Random(seed + t));
+        }
+        System.out.printf("[PixelmonRaid] %d tables x %,d draws in %.2f s: %s%n",
+                tables.length, draws, (System.nanoTime() - start) / 1e9, ok ? "PASS" : "FAIL");
+        if (!ok) System.exit(1);
+    }
+
+    private static double[] linear(int n) {
+        double[] w = new double[n];
+        for (int i = 0; i < n; i++) w[i] = i + 1;
+        return w;
+    }
+
+    private static boolean check(String name, double[] weights, int draws, Random random) {
+        AliasTable table = AliasTable.of(weights);
+        long[] counts = new long[weights.length];
+        for (int i = 0; i < draws; i++) counts[table.sample(random)]++;
+
+        double total = 0;
+        for (double w : weights) total += w;
+
+        double chi2 = 0;
+        int dof = -1;
+        boolean ok = true;
+        for (int i = 0; i < weights.length; i++) {
+            double p = weights[i] / total;
+            double expected = p * draws;
+            if (p == 0) {
+                if (counts[i] != 0) {
+                    System.out.println("  " + name + ": zero-weight entry " + i + " drawn " + counts[i] + " times");
+                    ok = false;
+                }
+                continue;
+            }
+            if (Math.abs(table.probability(i) - p) > 1e-12) {
+                System.out.println("  " + name + ": probability(" + i + ") = " + table.probability(i) + ", expected " + p);
+                ok = false;
+            }
+            double diff = counts[i] - expected;
+            chi2 += diff * diff / expected;
+            dof++;
+            // 6 standard deviations of a binomial count: a false alarm is practically impossible
+            double sigma = Math.sqrt(draws * p * (1 - p));
+            if (Math.abs(diff) > 6 * sigma + 1) {
+                System.out.printf("  %s: entry %d drawn %d times, expected %.1f (+-%.1f)%n", name, i, counts[i], expected, sigma);
+                ok = false;
+            }
+        }
+        // Wilson-Hilferty 99.99th percentile of chi-square with dof degrees of freedom
+        double z = 3.719;
+        double k = Math.max(1, dof);
+        double a = 2.0 / (9.0 * k);
+        double limit = k * Math.pow(1 - a + z * Math.sqrt(a), 3);
+        if (chi2 > limit) {
+            System.out.printf("  %s: chi-square %.2f exceeds %.2f (dof %d)%n", name, chi2, limit, dof);
+            ok = false;
+        }
+        System.out.printf("  %-8s n=%-3d chi2=%8.2f limit=%8.2f %s%n", name, weights.length, chi2, limit, ok ? "ok" : "FAIL");
+        return ok;
+    }
+}
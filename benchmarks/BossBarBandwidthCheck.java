@@ -0,0 +1,149 @@
+package com.example.PixelmonRaid.bench;
+
+import com.example.PixelmonRaid.BossBarFrame;
+import com.example.PixelmonRaid.BossBarInterpolator;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Boss-bar bandwidth and smoothness, before and after interpolated frames, over a simulated raid.
+ *  - before: percent + title every tick the value moved by more than sendThreshold; the client shows the last value
+ *  - after: BossBarBroadcaster's rules (a BossBarFrame at most every 5 ticks, only when the client's prediction is
+ *    off by more than sendThreshold, title only once); the client draws through BossBarInterpolator
+ * The raid is a roster of players hitting at random (about one move each per second) with a few lulls, until the
+ * boss is down. Reports payload bytes and packets per player, the mean gap between the drawn and the real bar
+ * (sampled every 10 ms, as a render loop would) and the largest jump between two render samples.
+ * Needs BossBarFrame, BossBarInterpolator and the stubs; exits with status 1 if "after" sends more bytes or
+ * jumps further than "before".
+ * Usage: BossBarBandwidthCheck [players] [raid-seconds] [seed]
+ */
+public final class BossBarBandwidthCheck {
+    private BossBarBandwidthCheck() {}
+
+    private static final double SEND_THRESHOLD = 0.005;
+    private static final int FLUSH_INTERVAL_TICKS = 5;
+    private static final String TITLE = "§aRaid Boss";
+    private static final int SAMPLE_MILLIS = 10;
+
+    public static void main(String[] args) {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 120;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+
+        float[] pct = simulateRaid(players, seconds * 20, seed);
+        Result before = before(pct);
+        Result after = after(pct);
+        double raidSeconds = pct.length / 20.0;
+
+        System.out.printf("raid: %d players, %.1f s until the boss is down%n", players, raidSeconds);
+        print("before", before, raidSeconds);
+        print("after ", after, raidSeconds);
+        System.out.printf("bytes: %.1f%% of before, packets: %.1f%% of before%n",
+                100.0 * after.bytes / before.bytes, 100.0 * after.packets / before.packets);
+
+        boolean ok = after.bytes < before.bytes && after.maxJump <= before.maxJump;
+        System.out.println(ok ? "OK" : "FAIL");
+        if (!ok) System.exit(1);
+    }
+
+    /** Percent left at the end of each tick. */
+    private static float[] simulateRaid(int players, int maxTicks, long seed) {
+        Random rand = new Random(seed);
+        long capacity = 2_000L * players * maxTicks / 20L * 3L / 4L; // about 75% of the time budget at full pace
+        float[] out = new float[maxTicks];
+        long dealt = 0L;
+        int t = 0;
+        for (; t < maxTicks && dealt < capacity; t++) {
+            boolean lull = (t / 20) % 20 >= 17; // 3 s breather every 20 s
+            if (!lull) {
+                for (int p = 0; p < players; p++) {
+                    if (rand.nextInt(20) == 0) dealt += 1_000L + rand.nextInt(2_001);
+                }
+            }
+            out[t] = Math.max(0f, 1f - (float) ((double) dealt / capacity));
+        }
+        return java.util.Arrays.copyOf(out, t);
+    }
+
+    private static Result before(float[] pct) {
+        Result r = new Result();
+        int titleBytes = utfSize(TITLE);
+        float last = -1f;
+        float shown = 1f;
+        for (int tick = 0; tick < pct.length; tick++) {
+            float p = pct[tick];
+            if (last < 0f || Math.abs(last - p) > SEND_THRESHOLD || (p <= 0f && last > 0f)) {
+                r.packets++;
+                r.bytes += 4 + titleBytes;
+                last = p;
+            }
+            shown = last;
+            for (int ms = 0; ms < 50; ms += SAMPLE_MILLIS) r.sample(shown, p);
+        }
+        return r.finish();
+    }
+
+    private static Result after(float[] pct) {
+        Result r = new Result();
+        BossBarInterpolator client = new BossBarInterpolator();
+        BossBarFrame last = null;
+        float lastPct = -1f;
+        long lastPctTick = 0L;
+        float drain = 0f;
+        for (int tick = 0; tick < pct.length; tick++) {
+            float p = pct[tick];
+            if (tick % FLUSH_INTERVAL_TICKS == 0 || tick == pct.length - 1) {
+                if (lastPct >= 0f) {
+                    float observed = Math.max(0f, (lastPct - p) / (tick - lastPctTick));
+                    drain += 0.5f * (observed - drain);
+                    if (drain < 1e-6f) drain = 0f;
+                }
+                lastPct = p;
+                lastPctTick = tick;
+                if (last == null || Math.abs(last.predict(tick) - p) > SEND_THRESHOLD || (p <= 0f && last.getTarget() > 0f)) {
+                    BossBarFrame frame = new BossBarFrame(p, tick, p <= 0f ? 0f : drain, last == null ? TITLE : null);
+                    client.accept(frame, tick * 50L);
+                    r.packets++;
+                    r.bytes += frame.encodedSize();
+                    last = frame;
+                }
+            }
+            for (int ms = 0; ms < 50; ms += SAMPLE_MILLIS) r.sample(client.displayed(tick * 50L + ms), p);
+        }
+        return r.finish();
+    }
+
+    private static int utfSize(String s) {
+        int len = s.getBytes(StandardCharsets.UTF_8).length;
+        return (len < 128 ? 1 : 2) + len;
+    }
+
+    private static void print(String label, Result r, double raidSeconds) {
+        System.out.printf("%s: %5d packets, %7d bytes per player (%.1f B/s), mean error %.4f, max jump %.4f%n",
+                label, r.packets, r.bytes, r.bytes / raidSeconds, r.meanError, r.maxJump);
+    }
+
+    private static final class Result {
+        long packets;
+        long bytes;
+        double errorSum;
+        long samples;
+        float prevShown = -1f;
+        double maxJump;
+        double meanError;
+
+        void sample(float shown, float actual) {
+            if (shown < 0f) return;
+            errorSum += Math.abs(shown - actual);
+            samples++;
+            if (prevShown >= 0f) maxJump = Math.max(maxJump, Math.abs(shown - prevShown));
+            prevShown = shown;
+        }
+
+        Result finish() {
+            meanError = samples == 0 ? 0.0 : errorSum / samples;
+            return this;
+        }
+    }
+}
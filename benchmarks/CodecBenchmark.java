@@ -0,0 +1,61 @@
+package com.example.PixelmonRaid.bench;
+
+import com.example.PixelmonRaid.BossBarFrame;
+import com.example.PixelmonRaid.BossTier;
+import com.example.PixelmonRaid.RaidBossState;
+import net.minecraft.network.PacketBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** BossTier buffer round trip, boss-bar packet and frame encoding, RaidBossState NBT round trip. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+    private final BossTier tier = new BossTier("legendary", 10.0f, 1.5f);
+    private final PacketBuffer buffer = new PacketBuffer();
+    private final RaidBossState state = new RaidBossState();
+    private final RaidBossState target = new RaidBossState();
+    private final BossBarFrame frame = new BossBarFrame(0.4321f, 123_456L, 0.0004f, null);
+
+    @Setup
+    public void setup() {
+        state.init(1_000_000);
+        state.addDamage(12_345);
+    }
+
+    @Benchmark
+    public BossTier bossTierRoundTrip() {
+        buffer.clear();
+        tier.toBuffer(buffer);
+        return BossTier.fromBuffer(buffer);
+    }
+
+    /** Same payload shape as the boss-bar packet: percent + title. */
+    @Benchmark
+    public int bossBarEncode() {
+        buffer.clear();
+        buffer.writeFloat(0.4321f);
+        buffer.writeUtf("Raid Boss");
+        return buffer.readableBytes();
+    }
+
+    /** The interpolated boss-bar frame (value, tick stamp, drain rate; title only when it changed). */
+    @Benchmark
+    public int bossBarFrameEncode() {
+        buffer.clear();
+        BossBarFrame.encode(frame, buffer);
+        return buffer.readableBytes();
+    }
+
+    @Benchmark
+    public RaidBossState bossStateNbtRoundTrip() {
+        target.deserializeNBT(state.serializeNBT());
+        return target;
+    }
+}
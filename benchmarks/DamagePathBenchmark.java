@@ -0,0 +1,60 @@
+package com.example.PixelmonRaid.bench;
+
+import com.example.PixelmonRaid.DamageTracker;
+import com.example.PixelmonRaid.RaidBossState;
+import com.example.PixelmonRaid.RaidLeaderboardAccess;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-hit work RaidDamageHandler does once the target is known to be a boss:
+ * pool update on RaidBossState, ledger write, leaderboard update, phase cut-off compare and the
+ * exactly-once depleted result (the boss-bar percent is worked out per flush, not per hit).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DamagePathBenchmark {
+
+    @Param({"8", "50"})
+    public int players;
+
+    private ServerPlayerEntity[] roster;
+    private RaidBossState state;
+    private DamageTracker tracker;
+    private RaidLeaderboardAccess leaderboard;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        roster = new ServerPlayerEntity[players];
+        tracker = new DamageTracker();
+        leaderboard = new RaidLeaderboardAccess();
+        for (int i = 0; i < players; i++) {
+            roster[i] = new ServerPlayerEntity(UUID.randomUUID(), "player" + i);
+            tracker.register(roster[i].getUUID());
+        }
+        state = new RaidBossState();
+        state.init(Integer.MAX_VALUE);
+        state.setPhaseThresholds(new double[]{0.25, 0.50, 0.75});
+    }
+
+    @Benchmark
+    public long hit() {
+        ServerPlayerEntity p = roster[next++ % roster.length];
+        int damage = 37;
+        tracker.recordDamage(p, damage);
+        leaderboard.recordDamage(p.getUUID(), damage);
+        boolean emptied = state.addDamage(damage);
+        long dealt = state.getAccumulatedDamage();
+        state.advancePhase(dealt);
+        if (emptied) state.init(Integer.MAX_VALUE);
+        return dealt;
+    }
+}
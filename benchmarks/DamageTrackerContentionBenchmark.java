@@ -0,0 +1,52 @@
+package com.example.PixelmonRaid.bench;
+
+import com.example.PixelmonRaid.DamageTracker;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** DamageTracker.recordDamage with several threads writing at once (one player per thread). */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class DamageTrackerContentionBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Ledger {
+        final DamageTracker tracker = new DamageTracker();
+        final AtomicInteger nextPlayer = new AtomicInteger();
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            tracker.reset();
+            nextPlayer.set(0);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Player {
+        UUID id;
+
+        @Setup(Level.Iteration)
+        public void setup(Ledger ledger) {
+            id = new UUID(0L, ledger.nextPlayer.getAndIncrement());
+            ledger.tracker.register(id);
+        }
+    }
+
+    @Benchmark
+    public void record(Ledger ledger, Player player) {
+        ledger.tracker.recordDamage(player.id, 37L);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long snapshotTotal(Ledger ledger) {
+        return ledger.tracker.snapshot().getTotal();
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.PixelmonRaid.bench;
+
+import com.example.PixelmonRaid.DropSet;
+import net.minecraft.item.ItemStack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Statistical check of DropSet.roll, the reward path on top of AliasTable.
+ *  - chances: getDropChance(i) matches the configured weights
+ *  - guaranteed: every roll hands out each guaranteed drop once plus exactly getRolls() weighted draws;
+ *    a pool with no weighted drops hands out only the guaranteed ones and leaves pity alone
+ *  - plain draws: with pity off, observed rates match the weights (per-entry 6-sigma bound)
+ *  - pity: a draw is forced from the rare drops exactly when pity >= pityThreshold, so a draw made after
+ *    pityThreshold - 1 misses still has the plain rare rate; forced draws follow the rare drops' weights and
+ *    the returned counter is the number of draws since the last rare one
+ * Needs DropSet.java, AliasTable.java and the stubs; exits with status 1 on any failure.
+ * Usage: DropSetCheck [rolls] [seed]
+ */
+public final class DropSetCheck {
+    private DropSetCheck() {}
+
+    private static final double[] WEIGHTS = {70, 20, 9, 1};
+    private static final String[] NAMES = {"common", "uncommon", "rare-a", "rare-b"};
+    private static final boolean[] RARE = {false, false, true, true};
+    private static final int PITY = 5;
+
+    public static void main(String[] args) {
+        int rolls = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 20240611L;
+
+        long start = System.nanoTime();
+        boolean ok = chances();
+        ok &= guaranteed(rolls / 10, new SplittableRandom(seed));
+        ok &= plainDraws(rolls, new SplittableRandom(seed + 1));
+        ok &= pity(rolls, new SplittableRandom(seed + 2));
+        System.out.printf("[PixelmonRaid] DropSet.roll, %,d rolls per check in %.2f s: %s%n",
+                rolls, (System.nanoTime() - start) / 1e9, ok ? "PASS" : "FAIL");
+        if (!ok) System.exit(1);
+    }
+
+    private static DropSet pool(int rolls, int pityThreshold) {
+        DropSet set = new DropSet();
+        for (int i = 0; i < WEIGHTS.length; i++) set.addDrop(new ItemStack(NAMES[i]), WEIGHTS[i], RARE[i]);
+        set.setRolls(rolls);
+        set.setPityThreshold(pityThreshold);
+        return set;
+    }
+
+    private static boolean chances() {
+        DropSet set = pool(1, 0);
+        double total = 0;
+        for (double w : WEIGHTS) total += w;
+        boolean ok = true;
+        for (int i = 0; i < WEIGHTS.length; i++) {
+            if (Math.abs(set.getDropChance(i) - WEIGHTS[i] / total) > 1e-12) {
+                System.out.println("  getDropChance(" + i + ") = " + set.getDropChance(i) + ", expected " + WEIGHTS[i] / total);
+                ok = false;
+            }
+        }
+        System.out.println("  chances:    " + (ok ? "ok" : "FAIL"));
+        return ok;
+    }
+
+    private static boolean guaranteed(int rolls, SplittableRandom rand) {
+        DropSet set = pool(3, 0);
+        set.addGuaranteed(new ItemStack("always-1"));
+        set.addGuaranteed(new ItemStack("always-2"));
+        DropSet onlyGuaranteed = new DropSet();
+        onlyGuaranteed.addGuaranteed(new ItemStack("always-1"));
+
+        int failures = 0;
+        List<ItemStack> out = new ArrayList<>();
+        for (int r = 0; r < rolls; r++) {
+            out.clear();
+            set.roll(rand, 0, out);
+            int always1 = count(out, "always-1");
+            int always2 = count(out, "always-2");
+            if (always1 != 1 || always2 != 1 || out.size() - always1 - always2 != set.getRolls()) {
+                if (failures++ < 5) System.out.println("  roll " + r + ": " + names(out));
+            }
+            out.clear();
+            int pity = onlyGuaranteed.roll(rand, 7, out);
+            if (out.size() != 1 || count(out, "always-1") != 1 || pity != 7) {
+                if (failures++ < 5) System.out.println("  guaranteed-only roll " + r + ": " + names(out) + ", pity " + pity);
+            }
+        }
+        System.out.printf("  guaranteed: %,d rolls, %d failures %s%n", rolls, failures, failures == 0 ? "ok" : "FAIL");
+        return failures == 0;
+    }
+
+    private static boolean plainDraws(int rolls, SplittableRandom rand) {
+        DropSet set = pool(1, 0);
+        long[] counts = new long[WEIGHTS.length];
+        List<ItemStack> out = new ArrayList<>();
+        for (int r = 0; r < rolls; r++) {
+            out.clear();
+            set.roll(rand, 0, out);
+            counts[index(out.get(0))]++;
+        }
+        boolean ok = true;
+        double total = 0;
+        for (double w : WEIGHTS) total += w;
+        for (int i = 0; i < WEIGHTS.length; i++) ok &= within("plain " + NAMES[i], counts[i], rolls, WEIGHTS[i] / total);
+        System.out.println("  plain:      " + (ok ? "ok" : "FAIL"));
+        return ok;
+    }
+
+    private static boolean pity(int rolls, SplittableRandom rand) {
+        DropSet set = pool(1, PITY);
+        double rareTotal = 0;
+        double total = 0;
+        for (int i = 0; i < WEIGHTS.length; i++) {
+            total += WEIGHTS[i];
+            if (RARE[i]) rareTotal += WEIGHTS[i];
+        }
+        // per pity value on entry (0..PITY): draws made, and how many of them were rare
+        long[] drawsAt = new long[PITY + 1];
+        long[] rareAt = new long[PITY + 1];
+        long[] forced = new long[WEIGHTS.length];
+        int failures = 0;
+        int pity = 0;
+        List<ItemStack> out = new ArrayList<>();
+        for (int r = 0; r < rolls; r++) {
+            out.clear();
+            int before = pity;
+            pity = set.roll(rand, pity, out);
+            int drawn = index(out.get(0));
+            int expected = RARE[drawn] ? 0 : before + 1;
+            if (pity != expected || before > PITY) {
+                if (failures++ < 5) System.out.println("  roll " + r + ": pity " + before + " -> " + pity + " after " + NAMES[drawn]);
+                continue;
+            }
+            drawsAt[before]++;
+            if (RARE[drawn]) rareAt[before]++;
+            if (before >= PITY) forced[drawn]++;
+        }
+
+        boolean ok = failures == 0;
+        if (rareAt[PITY] != drawsAt[PITY]) {
+            System.out.printf("  pity %d: %,d of %,d draws rare, expected all%n", PITY, rareAt[PITY], drawsAt[PITY]);
+            ok = false;
+        }
+        // below the threshold (including one miss short of it) the rare rate is the plain one
+        for (int p = 0; p < PITY; p++) ok &= within("pity " + p + " rare", rareAt[p], drawsAt[p], rareTotal / total);
+        for (int i = 0; i < WEIGHTS.length; i++) {
+            ok &= within("forced " + NAMES[i], forced[i], drawsAt[PITY], RARE[i] ? WEIGHTS[i] / rareTotal : 0.0);
+        }
+        System.out.printf("  pity:       threshold %d, %,d forced draws, %d failures %s%n",
+                PITY, drawsAt[PITY], failures, ok ? "ok" : "FAIL");
+        return ok;
+    }
+
+    /** Observed count within 6 standard deviations of a binomial with n trials and rate p. */
+    private static boolean within(String name, long count, long n, double p) {
+        double expected = n * p;
+        double sigma = Math.sqrt(n * p * (1 - p));
+        if (Math.abs(count - expected) <= 6 * sigma + 1) return true;
+        System.out.printf("  %s: %,d of %,d, expected %.1f (+-%.1f)%n", name, count, n, expected, sigma);
+        return false;
+    }
+
+    private static int index(ItemStack stack) {
+        String name = stack.getDisplayName().getString();
+        for (int i = 0; i < NAMES.length; i++) if (NAMES[i].equals(name)) return i;
+        throw new IllegalStateException("unknown drop " + name);
+    }
+
+    private static int count(List<ItemStack> out, String name) {
+        int n = 0;
+        for (ItemStack s : out) if (s.getDisplayName().getString().equals(name)) n++;
+        return n;
+    }
+
+    private static String names(List<ItemStack> out) {
+        StringBuilder sb = new StringBuilder();
+        for (ItemStack s : out) sb.append(s.getDisplayName().getString()).append(' ');
+        return sb.toString().trim();
+    }
+}
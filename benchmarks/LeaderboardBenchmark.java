@@ -0,0 +1,64 @@
+package com.example.PixelmonRaid.bench;
+
+import com.example.PixelmonRaid.RaidLeaderboardAccess;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.server.MinecraftServer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/** RaidLeaderboard.top, updates, and the versioned render cache. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LeaderboardBenchmark {
+
+    @Param({"50", "200", "1000"})
+    public int players;
+
+    private RaidLeaderboardAccess board;
+    private MinecraftServer server;
+    private UUID[] ids;
+    private Random random;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        board = new RaidLeaderboardAccess();
+        server = new MinecraftServer();
+        random = new Random(42L);
+        ids = new UUID[players];
+        for (int i = 0; i < players; i++) {
+            ids[i] = UUID.randomUUID();
+            server.getPlayerList().add(new ServerPlayerEntity(ids[i], "player" + i));
+            board.recordDamage(ids[i], 1 + random.nextInt(10_000));
+        }
+    }
+
+    @Benchmark
+    public List<?> top5() {
+        return board.top(5);
+    }
+
+    @Benchmark
+    public void recordDamage() {
+        board.recordDamage(ids[next++ % ids.length], 1 + random.nextInt(500));
+    }
+
+    @Benchmark
+    public List<?> recordThenRender() {
+        board.recordDamage(ids[next++ % ids.length], 1 + random.nextInt(500));
+        return board.renderLines(server);
+    }
+
+    @Benchmark
+    public List<?> renderCached() {
+        return board.renderLines(server);
+    }
+}
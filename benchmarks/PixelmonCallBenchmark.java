@@ -0,0 +1,69 @@
+package com.example.PixelmonRaid.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of reaching a Pixelmon static like BattleRegistry.getBattle(player):
+ *  - direct call (what compiled code against Pixelmon would do)
+ *  - Class.forName + getMethod + invoke per call (the old per-battle probing)
+ *  - a cached Method
+ *  - a cached MethodHandle in the generic (Object[])Object shape used by PixelmonBattleBridge
+ * The "registry" is a stand-in class so the benchmark runs without Pixelmon.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PixelmonCallBenchmark {
+
+    public static final class FakeBattleRegistry {
+        private static final Object BATTLE = new Object();
+
+        public static Object getBattle(Object player) {
+            return player == null ? null : BATTLE;
+        }
+    }
+
+    private static final MethodType GENERIC = MethodType.methodType(Object.class, Object[].class);
+
+    private final Object player = new Object();
+    private Method cachedMethod;
+    private MethodHandle cachedHandle;
+
+    @Setup
+    public void setup() throws Exception {
+        cachedMethod = FakeBattleRegistry.class.getMethod("getBattle", Object.class);
+        MethodHandle mh = MethodHandles.publicLookup().unreflect(cachedMethod);
+        cachedHandle = mh.asFixedArity().asSpreader(Object[].class, 1).asType(GENERIC);
+    }
+
+    @Benchmark
+    public Object direct() {
+        return FakeBattleRegistry.getBattle(player);
+    }
+
+    @Benchmark
+    public Object reflectivePerCall() throws Exception {
+        Class<?> c = Class.forName(FakeBattleRegistry.class.getName());
+        Method m = c.getMethod("getBattle", Object.class);
+        return m.invoke(null, player);
+    }
+
+    @Benchmark
+    public Object cachedMethod() throws Exception {
+        return cachedMethod.invoke(null, player);
+    }
+
+    @Benchmark
+    public Object cachedHandle() throws Throwable {
+        return (Object) cachedHandle.invokeExact(new Object[]{player});
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.PixelmonRaid.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs every raid benchmark and writes JMH JSON results.
+ * Usage: RaidBenchmarks [results.json] [include-regex]
+ */
+public final class RaidBenchmarks {
+    private RaidBenchmarks() {}
+
+    public static void main(String[] args) throws RunnerException {
+        String out = args.length > 0 ? args[0] : "jmh-results.json";
+        String include = args.length > 1 ? args[1] : RaidBenchmarks.class.getPackage().getName() + ".*Benchmark";
+        Options opts = new OptionsBuilder()
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(out)
+                .build();
+        new Runner(opts).run();
+        System.out.println("[PixelmonRaid] Benchmark results written to " + out);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.PixelmonRaid;
+
+import net.minecraft.server.MinecraftServer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/** Lets the benchmarks own a RaidLeaderboard without a RaidSession (its constructor is package-private). */
+public final class RaidLeaderboardAccess {
+    private final RaidLeaderboard board = new RaidLeaderboard();
+
+    public void recordDamage(UUID playerId, long damage) { board.recordDamage(playerId, damage); }
+    public List<Map.Entry<UUID, Long>> top(int n) { return board.top(n); }
+    public List<String> renderLines(MinecraftServer server) { return board.renderLines(server); }
+}
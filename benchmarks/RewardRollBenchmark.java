@@ -0,0 +1,103 @@
+package com.example.PixelmonRaid.bench;
+
+import com.example.PixelmonRaid.AliasTable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reward rolling for a whole roster.
+ *  - rollRosterByName: the original RaidRewardHandler loop, one chance roll, a registry lookup by name
+ *    and a new stack per hit (ForgeRegistries.ITEMS and ItemStack replaced by a map and a holder)
+ *  - rollRosterCatalogue: the catalogue chance loop of RewardAllocator over a compiled RewardCatalogue (chance array, hit indices)
+ *  - rollRosterAlias: one weighted DropSet draw per player through an AliasTable
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RewardRollBenchmark {
+
+    @Param({"50", "200", "1000"})
+    public int players;
+
+    @Param({"10", "50"})
+    public int entries;
+
+    private String[] names;
+    private int[] counts;
+    private float[] chances;
+    private Map<String, Object> itemRegistry;
+    private AliasTable weighted;
+    private Random random;
+
+    static final class Stack {
+        final Object item;
+        final int count;
+
+        Stack(Object item, int count) {
+            this.item = item;
+            this.count = count;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        random = new Random(7L);
+        names = new String[entries];
+        counts = new int[entries];
+        chances = new float[entries];
+        double[] weights = new double[entries];
+        itemRegistry = new HashMap<>();
+        for (int i = 0; i < entries; i++) {
+            names[i] = "pixelmon:item_" + i;
+            counts[i] = 1 + (i % 4);
+            chances[i] = 0.05f + (i % 10) * 0.1f;
+            weights[i] = chances[i];
+            itemRegistry.put(names[i], new Object());
+        }
+        weighted = AliasTable.of(weights);
+    }
+
+    @Benchmark
+    public void rollRosterByName(Blackhole bh) {
+        for (int p = 0; p < players; p++) {
+            List<Stack> toGive = new ArrayList<>();
+            for (int i = 0; i < entries; i++) {
+                if (random.nextFloat() > chances[i]) continue;
+                Object item = itemRegistry.get(new String(names[i])); // the handler parsed a fresh ResourceLocation per entry
+                if (item != null) toGive.add(new Stack(item, Math.max(1, counts[i])));
+            }
+            bh.consume(toGive);
+        }
+    }
+
+    @Benchmark
+    public void rollRosterCatalogue(Blackhole bh) {
+        for (int p = 0; p < players; p++) {
+            int[] hits = new int[entries];
+            int n = 0;
+            for (int i = 0; i < entries; i++) {
+                if (random.nextFloat() > chances[i]) continue;
+                hits[n++] = i;
+            }
+            bh.consume(Arrays.copyOf(hits, n));
+        }
+    }
+
+    @Benchmark
+    public void rollRosterAlias(Blackhole bh) {
+        for (int p = 0; p < players; p++) {
+            bh.consume(weighted.sample(random));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.PixelmonRaid.bench;
+
+import com.example.PixelmonRaid.SharedHpPool;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency stress check of SharedHpPool: several threads hit one pool at once.
+ *  - lost updates: with an unreachable capacity every hit must be counted (exactDealt == sum of hits);
+ *    the old plain read-add-write field is run under the same load for comparison
+ *  - double completion: over many small pools raced past zero, exactly one add() per pool returns true,
+ *    and once exactDealt() has returned no further hit is counted
+ *  - seal under load: exactDealt() is called while writers are still adding; the total it returns must be the
+ *    pool's total once every writer has stopped (no hit in flight at the seal is missed or counted late)
+ * Needs nothing but SharedHpPool.java; exits with status 1 on any failure.
+ * Usage: SharedHpPoolStress [threads] [hits-per-thread] [races]
+ */
+public final class SharedHpPoolStress {
+    private SharedHpPoolStress() {}
+
+    private static long plainTotal; // the pre-pool RaidBossState field, deliberately unsynchronized
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int hits = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        int races = args.length > 2 ? Integer.parseInt(args[2]) : 5_000;
+
+        long start = System.nanoTime();
+        boolean ok = lostUpdates(threads, hits);
+        ok &= doubleCompletion(threads, races);
+        ok &= sealUnderLoad(threads, races / 10);
+        System.out.printf("[PixelmonRaid] %d threads, %,d hits each, %,d races in %.2f s: %s%n",
+                threads, hits, races, (System.nanoTime() - start) / 1e9, ok ? "PASS" : "FAIL");
+        if (!ok) System.exit(1);
+    }
+
+    private static boolean lostUpdates(int threads, int hits) throws InterruptedException {
+        SharedHpPool pool = new SharedHpPool(Long.MAX_VALUE);
+        AtomicLong expected = new AtomicLong();
+        AtomicInteger spurious = new AtomicInteger();
+        plainTotal = 0L;
+
+        run(threads, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long mine = 0L;
+            for (int i = 0; i < hits; i++) {
+                int amount = 1 + random.nextInt(200);
+                mine += amount;
+                if (pool.add(amount)) spurious.incrementAndGet();
+                plainTotal += amount;
+            }
+            expected.addAndGet(mine);
+        });
+
+        long counted = pool.exactDealt();
+        boolean ok = counted == expected.get() && spurious.get() == 0;
+        System.out.printf("  lost updates: expected %,d, pool counted %,d, plain field counted %,d (lost %,d) %s%n",
+                expected.get(), counted, plainTotal, expected.get() - plainTotal, ok ? "ok" : "FAIL");
+        return ok;
+    }
+
+    private static boolean doubleCompletion(int threads, int races) throws InterruptedException {
+        int failures = 0;
+        for (int r = 0; r < races; r++) {
+            long capacity = 500 + r % 1000;
+            SharedHpPool pool = new SharedHpPool(capacity);
+            AtomicInteger victories = new AtomicInteger();
+
+            run(threads, () -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 64; i++) {
+                    if (pool.add(1 + random.nextInt(40))) victories.incrementAndGet();
+                }
+            });
+
+            long last = pool.exactDealt();
+            boolean refused = !pool.add(10) && pool.exactDealt() == last;
+            if (victories.get() != 1 || !pool.isCrossed() || last < capacity || !refused) {
+                if (failures++ < 5) {
+                    System.out.printf("  race %d: capacity %d, dealt %d, victories %d, refused after seal %b%n",
+                            r, capacity, last, victories.get(), refused);
+                }
+            }
+        }
+        System.out.printf("  double completion: %,d races, %d failures %s%n", races, failures, failures == 0 ? "ok" : "FAIL");
+        return failures == 0;
+    }
+
+    private static boolean sealUnderLoad(int threads, int rounds) throws InterruptedException {
+        int failures = 0;
+        for (int r = 0; r < rounds; r++) {
+            SharedHpPool pool = new SharedHpPool(Long.MAX_VALUE);
+            AtomicInteger accepted = new AtomicInteger();
+            CountDownLatch started = new CountDownLatch(threads);
+            Thread[] writers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                writers[t] = new Thread(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    started.countDown();
+                    while (!pool.isSealed()) pool.add(1 + random.nextInt(200));
+                    // a few more after the seal; every one must be refused
+                    for (int i = 0; i < 16; i++) {
+                        long before = pool.approximateDealt();
+                        pool.add(1 + random.nextInt(200));
+                        if (pool.approximateDealt() != before) accepted.incrementAndGet();
+                    }
+                });
+                writers[t].start();
+            }
+            started.await();
+            Thread.yield();
+            long sealedAt = pool.exactDealt();
+            for (Thread w : writers) w.join();
+            long after = pool.approximateDealt();
+            if (after != sealedAt || accepted.get() != 0) {
+                if (failures++ < 5) {
+                    System.out.printf("  round %d: exactDealt %,d, total after writers stopped %,d, accepted after seal %d%n",
+                            r, sealedAt, after, accepted.get());
+                }
+            }
+        }
+        System.out.printf("  seal under load: %,d rounds, %d failures %s%n", rounds, failures, failures == 0 ? "ok" : "FAIL");
+        return failures == 0;
+    }
+
+    /** Start all workers together and wait for them. */
+    private static void run(int threads, Runnable body) throws InterruptedException {
+        CountDownLatch go = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                body.run();
+            });
+            workers[t].start();
+        }
+        go.countDown();
+        for (Thread w : workers) w.join();
+    }
+}
@@ -0,0 +1,31 @@
+package net.minecraft.nbt;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/** Benchmark stand-in: map-backed tag with the typed accessors the mod uses. */
+public class CompoundNBT {
+    private final Map<String, Object> tags = new HashMap<>();
+
+    public void putBoolean(String key, boolean v) { tags.put(key, v); }
+    public void putInt(String key, int v) { tags.put(key, v); }
+    public void putLong(String key, long v) { tags.put(key, v); }
+    public void putFloat(String key, float v) { tags.put(key, v); }
+    public void putString(String key, String v) { tags.put(key, v); }
+    public void putLongArray(String key, long[] v) { tags.put(key, v.clone()); }
+    public void putDouble(String key, double v) { tags.put(key, v); }
+    public void put(String key, CompoundNBT v) { tags.put(key, v); }
+    public void put(String key, ListNBT v) { tags.put(key, v); }
+
+    public boolean getBoolean(String key) { Object o = tags.get(key); return o instanceof Boolean && (Boolean) o; }
+    public int getInt(String key) { Object o = tags.get(key); return o instanceof Number ? ((Number) o).intValue() : 0; }
+    public long getLong(String key) { Object o = tags.get(key); return o instanceof Number ? ((Number) o).longValue() : 0L; }
+    public float getFloat(String key) { Object o = tags.get(key); return o instanceof Number ? ((Number) o).floatValue() : 0f; }
+    public String getString(String key) { Object o = tags.get(key); return o instanceof String ? (String) o : ""; }
+    public long[] getLongArray(String key) { Object o = tags.get(key); return o instanceof long[] ? ((long[]) o).clone() : new long[0]; }
+    public double getDouble(String key) { Object o = tags.get(key); return o instanceof Number ? ((Number) o).doubleValue() : 0.0; }
+    public CompoundNBT getCompound(String key) { Object o = tags.get(key); return o instanceof CompoundNBT ? (CompoundNBT) o : new CompoundNBT(); }
+    public ListNBT getList(String key, int type) { Object o = tags.get(key); return o instanceof ListNBT ? (ListNBT) o : new ListNBT(); }
+    public boolean contains(String key) { return tags.containsKey(key); }
+    public void remove(String key) { tags.remove(key); }
+}
@@ -0,0 +1,12 @@
+package net.minecraftforge.common.util;
+
+/** Benchmark stand-in. */
+public final class Constants {
+    private Constants() {}
+
+    public static final class NBT {
+        private NBT() {}
+
+        public static final int TAG_COMPOUND = 10;
+    }
+}
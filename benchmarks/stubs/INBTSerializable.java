@@ -0,0 +1,7 @@
+package net.minecraftforge.common.util;
+
+/** Benchmark stand-in. */
+public interface INBTSerializable<T> {
+    T serializeNBT();
+    void deserializeNBT(T nbt);
+}
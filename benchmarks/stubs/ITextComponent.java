@@ -0,0 +1,6 @@
+package net.minecraft.util.text;
+
+/** Benchmark stand-in. */
+public interface ITextComponent {
+    String getString();
+}
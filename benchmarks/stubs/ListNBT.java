@@ -0,0 +1,13 @@
+package net.minecraft.nbt;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Benchmark stand-in: a list of compound tags. */
+public class ListNBT {
+    private final List<CompoundNBT> tags = new ArrayList<>();
+
+    public boolean add(CompoundNBT tag) { return tags.add(tag); }
+    public int size() { return tags.size(); }
+    public CompoundNBT getCompound(int i) { return i < tags.size() ? tags.get(i) : new CompoundNBT(); }
+}
@@ -0,0 +1,10 @@
+package net.minecraft.server;
+
+import net.minecraft.server.management.PlayerList;
+
+/** Benchmark stand-in: a server is just its player list. */
+public class MinecraftServer {
+    private final PlayerList playerList = new PlayerList();
+
+    public PlayerList getPlayerList() { return playerList; }
+}
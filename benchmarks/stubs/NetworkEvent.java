@@ -0,0 +1,18 @@
+package net.minecraftforge.fml.network;
+
+/** Benchmark stand-in: just the Context calls packet handlers make. */
+public class NetworkEvent {
+    public static class Context {
+        private boolean handled;
+
+        public void enqueueWork(Runnable work) {
+            work.run();
+        }
+
+        public void setPacketHandled(boolean handled) {
+            this.handled = handled;
+        }
+
+        public boolean isPacketHandled() { return handled; }
+    }
+}
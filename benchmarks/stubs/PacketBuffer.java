@@ -0,0 +1,127 @@
+package net.minecraft.network;
+
+import net.minecraft.item.ItemStack;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Benchmark stand-in for the netty-backed PacketBuffer: a growable byte array with the same
+ * wire format for the calls the mod makes (VarInt/VarLong, length-prefixed UTF-8 strings, big-endian floats).
+ */
+public class PacketBuffer {
+    private byte[] data = new byte[64];
+    private int writerIndex;
+    private int readerIndex;
+
+    public PacketBuffer writeVarInt(int value) {
+        while ((value & -128) != 0) {
+            writeByte(value & 127 | 128);
+            value >>>= 7;
+        }
+        return writeByte(value);
+    }
+
+    public int readVarInt() {
+        int result = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[readerIndex++];
+            result |= (b & 127) << shift;
+            shift += 7;
+            if (shift > 35) throw new RuntimeException("VarInt too big");
+        } while ((b & 128) == 128);
+        return result;
+    }
+
+    public PacketBuffer writeVarLong(long value) {
+        while ((value & -128L) != 0L) {
+            writeByte((int) (value & 127L) | 128);
+            value >>>= 7;
+        }
+        return writeByte((int) value);
+    }
+
+    public long readVarLong() {
+        long result = 0L;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[readerIndex++];
+            result |= (long) (b & 127) << shift;
+            shift += 7;
+            if (shift > 70) throw new RuntimeException("VarLong too big");
+        } while ((b & 128) == 128);
+        return result;
+    }
+
+    public PacketBuffer writeUtf(String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, data, writerIndex, bytes.length);
+        writerIndex += bytes.length;
+        return this;
+    }
+
+    public String readUtf(int maxLength) {
+        int len = readVarInt();
+        if (len > maxLength * 4) throw new RuntimeException("String too long");
+        String s = new String(data, readerIndex, len, StandardCharsets.UTF_8);
+        readerIndex += len;
+        return s;
+    }
+
+    public PacketBuffer writeInt(int v) {
+        ensure(4);
+        data[writerIndex++] = (byte) (v >>> 24);
+        data[writerIndex++] = (byte) (v >>> 16);
+        data[writerIndex++] = (byte) (v >>> 8);
+        data[writerIndex++] = (byte) v;
+        return this;
+    }
+
+    public int readInt() {
+        return ((data[readerIndex++] & 0xFF) << 24) | ((data[readerIndex++] & 0xFF) << 16)
+                | ((data[readerIndex++] & 0xFF) << 8) | (data[readerIndex++] & 0xFF);
+    }
+
+    public PacketBuffer writeFloat(float v) { return writeInt(Float.floatToIntBits(v)); }
+    public float readFloat() { return Float.intBitsToFloat(readInt()); }
+
+    public PacketBuffer writeDouble(double v) {
+        long bits = Double.doubleToLongBits(v);
+        writeInt((int) (bits >>> 32));
+        return writeInt((int) bits);
+    }
+
+    public double readDouble() {
+        long hi = readInt() & 0xFFFFFFFFL;
+        return Double.longBitsToDouble(hi << 32 | (readInt() & 0xFFFFFFFFL));
+    }
+
+    // stand-in stacks are just their name
+    public PacketBuffer writeItem(ItemStack stack) { return writeUtf(stack.getDisplayName().getString()); }
+    public ItemStack readItem() { return new ItemStack(readUtf(32767)); }
+
+    public PacketBuffer writeBoolean(boolean v) { return writeByte(v ? 1 : 0); }
+    public boolean readBoolean() { return data[readerIndex++] != 0; }
+
+    public PacketBuffer writeByte(int b) {
+        ensure(1);
+        data[writerIndex++] = (byte) b;
+        return this;
+    }
+
+    public int readableBytes() { return writerIndex - readerIndex; }
+
+    public void clear() {
+        writerIndex = 0;
+        readerIndex = 0;
+    }
+
+    private void ensure(int extra) {
+        if (writerIndex + extra > data.length) data = Arrays.copyOf(data, Math.max(data.length * 2, writerIndex + extra));
+    }
+}
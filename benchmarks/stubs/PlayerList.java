@@ -0,0 +1,15 @@
+package net.minecraft.server.management;
+
+import net.minecraft.entity.player.ServerPlayerEntity;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/** Benchmark stand-in. */
+public class PlayerList {
+    private final Map<UUID, ServerPlayerEntity> players = new HashMap<>();
+
+    public void add(ServerPlayerEntity player) { players.put(player.getUUID(), player); }
+    public ServerPlayerEntity getPlayer(UUID id) { return players.get(id); }
+}
@@ -0,0 +1,20 @@
+package net.minecraft.entity.player;
+
+import net.minecraft.util.text.ITextComponent;
+import net.minecraft.util.text.StringTextComponent;
+
+import java.util.UUID;
+
+/** Benchmark stand-in: only the members the raid hot paths touch. */
+public class ServerPlayerEntity {
+    private final UUID uuid;
+    private final ITextComponent name;
+
+    public ServerPlayerEntity(UUID uuid, String name) {
+        this.uuid = uuid;
+        this.name = new StringTextComponent(name);
+    }
+
+    public UUID getUUID() { return uuid; }
+    public ITextComponent getName() { return name; }
+}
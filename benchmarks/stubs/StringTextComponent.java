@@ -0,0 +1,11 @@
+package net.minecraft.util.text;
+
+/** Benchmark stand-in. */
+public class StringTextComponent implements ITextComponent {
+    private final String text;
+
+    public StringTextComponent(String text) { this.text = text; }
+
+    @Override
+    public String getString() { return text; }
+}
@@ -0,0 +1,10 @@
+package net.minecraft.util;
+
+/** Benchmark stand-in: the game's millisecond clock. */
+public final class Util {
+    private Util() {}
+
+    public static long getMillis() {
+        return System.nanoTime() / 1_000_000L;
+    }
+}